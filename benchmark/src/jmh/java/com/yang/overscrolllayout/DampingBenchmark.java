@@ -0,0 +1,86 @@
+package com.yang.overscrolllayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 阻尼计算：查找表和原公式的对比
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DampingBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    @Param({"300", "2400"})
+    public int maxDistance;
+
+    private DampingEngine engine;
+    private final int[] translations = new int[SAMPLES];
+    private final int[] distances = new int[SAMPLES];
+    private int index;
+
+    @Setup
+    public void setup() {
+        engine = new DampingEngine(maxDistance);
+        Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            translations[i] = random.nextInt(maxDistance * 4) - maxDistance * 2;
+            distances[i] = random.nextInt(maxDistance * 2 - 1) - maxDistance + 1;
+        }
+    }
+
+    private int next() {
+        index = (index + 1) & (SAMPLES - 1);
+        return index;
+    }
+
+    @Benchmark
+    public float computeDampedSlipDistance() {
+        return engine.damp(translations[next()]);
+    }
+
+    @Benchmark
+    public float reverseComputeDampedSlipDistance() {
+        return engine.undamp(distances[next()]);
+    }
+
+    @Benchmark
+    public void computeDampedSlipDistance_formula(Blackhole blackhole) {
+        int translation = translations[next()];
+        if (translation == 0) {
+            blackhole.consume(0);
+            return;
+        }
+        int x = Math.abs(translation);
+        int M = maxDistance;
+        double H = M * 8.75;
+        double y = (M * (1 - Math.pow(100, -x / H)));
+        blackhole.consume((int) (y * (translation / x)));
+    }
+
+    @Benchmark
+    public void reverseComputeDampedSlipDistance_formula(Blackhole blackhole) {
+        int distance = distances[next()];
+        if (distance == 0) {
+            blackhole.consume(0);
+            return;
+        }
+        int y = Math.abs(distance);
+        double M = maxDistance;
+        double H = M * 8.75;
+        double x = (Math.log(1 - y / M) / Math.log(100) * (-H));
+        blackhole.consume((int) (x * (distance / y)));
+    }
+}
@@ -0,0 +1,70 @@
+package com.yang.overscrolllayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 过度滚动监听器的分发
+ *
+ * OnOverScrollListener是OverScrollLayout（Android类）的内部接口，JVM上不能加载，
+ * 这里用相同签名的接口，通过库中的ListenerArray按ScrollViewWrapper.onOverScroll的方式分发，
+ * 并保留原来ArrayList for-each分发的对照。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ListenerDispatchBenchmark {
+
+    interface Listener {
+        void onOverScroll(int axes, int translation, int actualTranslation);
+    }
+
+    @Param({"1", "10", "100"})
+    public int listenerCount;
+
+    private final ListenerArray<Listener> listeners = new ListenerArray<>();
+    private final List<Listener> arrayList = new ArrayList<>();
+    private int translation;
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        for (int i = 0; i < listenerCount; i++) {
+            Listener listener = new Listener() {
+                @Override
+                public void onOverScroll(int axes, int translation, int actualTranslation) {
+                    blackhole.consume(actualTranslation);
+                }
+            };
+            listeners.add(listener);
+            arrayList.add(listener);
+        }
+    }
+
+    @Benchmark
+    public void dispatch() {
+        int t = ++translation;
+        Object[] array = listeners.getArray();
+        for (int i = 0; i < array.length; i++) {
+            ((Listener) array[i]).onOverScroll(2, t, t >> 1);
+        }
+    }
+
+    @Benchmark
+    public void dispatch_arrayListIterator() {
+        int t = ++translation;
+        for (Listener listener : arrayList) {
+            listener.onOverScroll(2, t, t >> 1);
+        }
+    }
+}
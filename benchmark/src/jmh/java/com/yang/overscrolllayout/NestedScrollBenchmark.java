@@ -0,0 +1,46 @@
+package com.yang.overscrolllayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * onNestedScrollVertical、onNestedScrollHorizontal中计算新位移的逻辑，
+ * 模拟拖动时一连串的dy和边界状态
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NestedScrollBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    private final int[] deltas = new int[SAMPLES];
+    private final boolean[] canScrolls = new boolean[SAMPLES];
+    private int index;
+    private float translation;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            int delta = random.nextInt(80) - 40;
+            deltas[i] = delta == 0 ? 1 : delta;
+            canScrolls[i] = random.nextInt(4) != 0;
+        }
+    }
+
+    @Benchmark
+    public float resolveTranslation() {
+        int i = index = (index + 1) & (SAMPLES - 1);
+        translation = OverScrollResolver.resolveTranslation(translation, deltas[i], canScrolls[i]);
+        return translation;
+    }
+}
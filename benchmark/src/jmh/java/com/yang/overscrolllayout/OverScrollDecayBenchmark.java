@@ -0,0 +1,54 @@
+package com.yang.overscrolllayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 惯性过度滚动每一帧的衰减计算，以及整条轨迹（衰减加弹簧）每一帧的取值
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OverScrollDecayBenchmark {
+
+    private static final long FRAME = 1000000000L / 120;
+
+    private final OverScrollDecay decay = new OverScrollDecay();
+    private long frameTime;
+
+    private final OverScrollTrajectory trajectory = new OverScrollTrajectory();
+    private long trajectoryFrameTime;
+
+    @Setup
+    public void setup() {
+        decay.start(6000, 0);
+        trajectory.start(0, 6000, 0);
+    }
+
+    @Benchmark
+    public float decayStep() {
+        frameTime += FRAME;
+        if (!decay.update(frameTime)) {
+            frameTime = 0;
+            decay.start(6000, 0);
+        }
+        return decay.getOffset();
+    }
+
+    @Benchmark
+    public float trajectoryStep() {
+        trajectoryFrameTime += FRAME;
+        if (!trajectory.update(trajectoryFrameTime)) {
+            trajectoryFrameTime = 0;
+            trajectory.start(0, 6000, 0);
+        }
+        return trajectory.getPosition();
+    }
+}
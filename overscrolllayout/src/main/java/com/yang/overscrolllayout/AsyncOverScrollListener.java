@@ -0,0 +1,204 @@
+package com.yang.overscrolllayout;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 在Executor上回调的OnOverScrollListener，用于统计、预加载判断这类不需要在主线程做的工作
+ *
+ * 主线程只把最新的位移写入每个方向的单个槽位，没有提交过任务时才向Executor提交一次，
+ * 不加锁、不分配对象；Executor上的任务取出各个方向最新的位移回调delegate。
+ * 回调跟不上时中间的值被合并掉，不会积压，同一时刻最多只有一个任务在Executor中，回调按顺序执行。
+ *
+ * 同一个方向的translation和actualTranslation总是同一次写入的；二维回调中两个方向的值可能来自相邻的两次写入。
+ * 通过{@link OverScrollLayout#addOnOverScrollListener(OverScrollLayout.OnOverScrollListener, Executor)}添加。
+ */
+public final class AsyncOverScrollListener implements OverScrollLayout.OnOverScrollListener {
+
+    private static final int PENDING_X = 1;
+    private static final int PENDING_Y = 1 << 1;
+    private static final int PENDING_BOTH = 1 << 2;
+
+    //还没有回调过，位移不会是NaN
+    private static final long NO_VALUE = pack(Float.NaN, Float.NaN);
+
+    private final OverScrollLayout.OnOverScrollListener mDelegate;
+    private final Executor mExecutor;
+
+    //每个方向最新的位移，高32位translation、低32位actualTranslation的float位
+    private final AtomicLong mValueX = new AtomicLong();
+    private final AtomicLong mValueY = new AtomicLong();
+    //等待回调的方向，PENDING_*的组合
+    private final AtomicInteger mPending = new AtomicInteger();
+    //是否已经向Executor提交了任务还没有执行完
+    private final AtomicBoolean mScheduled = new AtomicBoolean();
+    private volatile boolean mCanceled = false;
+
+    //上一次回调的值，只在任务中读写，任务不会并发执行
+    private long mLastX = NO_VALUE;
+    private long mLastY = NO_VALUE;
+    private long mLastBothX = NO_VALUE;
+    private long mLastBothY = NO_VALUE;
+
+    private final Runnable mDrain = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    /**
+     * @param delegate 在executor上回调的监听器
+     * @param executor 执行回调的Executor，可以是多线程的，回调不会并发执行
+     */
+    public AsyncOverScrollListener(@NonNull OverScrollLayout.OnOverScrollListener delegate, @NonNull Executor executor) {
+        if (delegate == null || executor == null) {
+            throw new IllegalArgumentException("delegate and executor must not be null");
+        }
+        mDelegate = delegate;
+        mExecutor = executor;
+    }
+
+    @NonNull
+    public OverScrollLayout.OnOverScrollListener getDelegate() {
+        return mDelegate;
+    }
+
+    /**
+     * 不再回调delegate，已经提交的任务执行时直接返回。从OverScrollLayout移除时调用
+     */
+    public void cancel() {
+        mCanceled = true;
+    }
+
+    public boolean isCanceled() {
+        return mCanceled;
+    }
+
+    @Override
+    public void onOverScroll(OverScrollLayout.Axes axes, int translation, int actualTranslation) {
+        onOverScroll(axes, (float) translation, (float) actualTranslation);
+    }
+
+    @Override
+    public void onOverScroll(OverScrollLayout.Axes axes, float translation, float actualTranslation) {
+        if (axes == OverScrollLayout.Axes.HORIZONTAL) {
+            mValueX.set(pack(translation, actualTranslation));
+            post(PENDING_X);
+        } else {
+            mValueY.set(pack(translation, actualTranslation));
+            post(PENDING_Y);
+        }
+    }
+
+    @Override
+    public void onOverScroll(float translationX, float translationY, float actualTranslationX, float actualTranslationY) {
+        mValueX.set(pack(translationX, actualTranslationX));
+        mValueY.set(pack(translationY, actualTranslationY));
+        post(PENDING_BOTH);
+    }
+
+    private void post(int flag) {
+        if (mCanceled) {
+            return;
+        }
+        //先写值再标记，任务看到标记时一定能读到这次或者更新的值
+        int pending;
+        do {
+            pending = mPending.get();
+        } while ((pending & flag) == 0 && !mPending.compareAndSet(pending, pending | flag));
+        schedule();
+    }
+
+    private void schedule() {
+        if (mScheduled.compareAndSet(false, true)) {
+            try {
+                mExecutor.execute(mDrain);
+            } catch (RejectedExecutionException e) {
+                //Executor已经关闭，丢弃这次的值，之后的写入还会再尝试提交
+                mScheduled.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            if (mCanceled) {
+                mPending.set(0);
+            } else {
+                dispatch();
+            }
+        } finally {
+            //回调抛出异常时也要清除标记，否则之后的值都不会再提交
+            mScheduled.set(false);
+            //回调过程中又有新的值，或者回调抛出异常时还有没回调的方向，重新提交，不在这里循环占住Executor的线程
+            if (mPending.get() != 0) {
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * 每个方向在回调之前才取走标记，delegate抛出异常时，后面的方向留到下一个任务回调
+     */
+    private void dispatch() {
+        //任务在写入值之后、标记之前取走了新的值时，下一个任务会读到同样的值，跳过
+        if (take(PENDING_X)) {
+            long value = mValueX.get();
+            if (value != mLastX) {
+                mLastX = value;
+                mDelegate.onOverScroll(OverScrollLayout.Axes.HORIZONTAL, translationOf(value), actualTranslationOf(value));
+            }
+        }
+        if (take(PENDING_Y)) {
+            long value = mValueY.get();
+            if (value != mLastY) {
+                mLastY = value;
+                mDelegate.onOverScroll(OverScrollLayout.Axes.VERTICAL, translationOf(value), actualTranslationOf(value));
+            }
+        }
+        if (take(PENDING_BOTH)) {
+            long x = mValueX.get();
+            long y = mValueY.get();
+            if (x != mLastBothX || y != mLastBothY) {
+                mLastBothX = x;
+                mLastBothY = y;
+                mDelegate.onOverScroll(translationOf(x), translationOf(y), actualTranslationOf(x), actualTranslationOf(y));
+            }
+        }
+    }
+
+    /**
+     * 清除一个方向的标记
+     *
+     * @return 这个方向是否在等待回调
+     */
+    private boolean take(int flag) {
+        int pending;
+        do {
+            pending = mPending.get();
+            if ((pending & flag) == 0) {
+                return false;
+            }
+        } while (!mPending.compareAndSet(pending, pending & ~flag));
+        return true;
+    }
+
+    static long pack(float translation, float actualTranslation) {
+        return ((long) Float.floatToRawIntBits(translation) << 32)
+                | (Float.floatToRawIntBits(actualTranslation) & 0xFFFFFFFFL);
+    }
+
+    static float translationOf(long value) {
+        return Float.intBitsToFloat((int) (value >>> 32));
+    }
+
+    static float actualTranslationOf(long value) {
+        return Float.intBitsToFloat((int) value);
+    }
+}
@@ -0,0 +1,142 @@
+package com.yang.overscrolllayout;
+
+/**
+ * 阻尼计算引擎，用查找表代替每帧的 Math.pow、Math.log
+ *
+ * 公式 y = M(1-100^(-x/H))，H = 8.75M
+ *
+ * M：过度滑动的最大距离
+ * x：原始应该滑动的距离（虚拟距离）
+ * y：经过阻尼后实际滑动的距离
+ *
+ * 令 u = x/M，v = y/M，公式变为 v = 1-100^(-u/8.75)，和M无关。
+ * 所以正向表（u -> v）和反向表（v -> u）只在归一化坐标下计算一次，所有实例共享；
+ * M变化时只更新缩放系数，每帧的计算只是一次查表加线性插值。
+ */
+public final class DampingEngine {
+
+    /**
+     * 公式中 H = M * DAMPING_FACTOR
+     */
+    static final double DAMPING_FACTOR = 8.75;
+
+    //正向表覆盖 u ∈ [0, 3 * 8.75]，此时 v = 1 - 10^-6，再往后的差值可以忽略
+    private static final float FORWARD_MAX_U = (float) (DAMPING_FACTOR * 3);
+    private static final int FORWARD_SEGMENTS = 2048;
+    private static final float FORWARD_SCALE = FORWARD_SEGMENTS / FORWARD_MAX_U;
+
+    //反向表覆盖 v ∈ [0, 0.95]，越靠近1曲线越陡，插值误差变大，超出部分直接用公式计算
+    private static final float INVERSE_MAX_V = 0.95f;
+    private static final int INVERSE_SEGMENTS = 2048;
+    private static final float INVERSE_SCALE = INVERSE_SEGMENTS / INVERSE_MAX_V;
+
+    private static final float[] FORWARD = new float[FORWARD_SEGMENTS + 1];
+    private static final float[] INVERSE = new float[INVERSE_SEGMENTS + 1];
+
+    static {
+        for (int i = 0; i <= FORWARD_SEGMENTS; i++) {
+            double u = (double) i / FORWARD_SEGMENTS * FORWARD_MAX_U;
+            FORWARD[i] = (float) forward(u);
+        }
+        for (int i = 0; i <= INVERSE_SEGMENTS; i++) {
+            double v = (double) i / INVERSE_SEGMENTS * INVERSE_MAX_V;
+            INVERSE[i] = (float) inverse(v);
+        }
+    }
+
+    private float mMaxDistance;
+    private float mInverseMaxDistance;
+
+    public DampingEngine() {
+    }
+
+    public DampingEngine(float maxDistance) {
+        setMaxDistance(maxDistance);
+    }
+
+    /**
+     * 设置过度滑动的最大距离M，只更新缩放系数，不重新计算查找表
+     */
+    public void setMaxDistance(float maxDistance) {
+        if (maxDistance == mMaxDistance) {
+            return;
+        }
+        mMaxDistance = maxDistance;
+        mInverseMaxDistance = maxDistance > 0 ? 1f / maxDistance : 0f;
+    }
+
+    public float getMaxDistance() {
+        return mMaxDistance;
+    }
+
+    /**
+     * 计算阻尼滑动距离，虚拟距离 -> 实际距离，保留符号
+     */
+    public float damp(float translation) {
+        if (translation == 0 || mMaxDistance <= 0) {
+            return 0;
+        }
+        float x = translation > 0 ? translation : -translation;
+        float u = x * mInverseMaxDistance;
+
+        float v;
+        if (u >= FORWARD_MAX_U) {
+            v = FORWARD[FORWARD_SEGMENTS];
+        } else {
+            float position = u * FORWARD_SCALE;
+            int i = (int) position;
+            if (i >= FORWARD_SEGMENTS) {
+                i = FORWARD_SEGMENTS - 1;
+            }
+            float from = FORWARD[i];
+            v = from + (FORWARD[i + 1] - from) * (position - i);
+        }
+
+        float y = v * mMaxDistance;
+        return translation > 0 ? y : -y;
+    }
+
+    /**
+     * 反向计算阻尼滑动距离，实际距离 -> 虚拟距离，保留符号
+     */
+    public float undamp(float distance) {
+        if (distance == 0 || mMaxDistance <= 0) {
+            return 0;
+        }
+        float y = distance > 0 ? distance : -distance;
+        float v = y * mInverseMaxDistance;
+
+        float u;
+        if (v >= 1) {
+            //已经到达最大距离，虚拟距离取正向表能表示的最大值
+            u = FORWARD_MAX_U;
+        } else if (v > INVERSE_MAX_V) {
+            u = (float) inverse(v);
+        } else {
+            float position = v * INVERSE_SCALE;
+            int i = (int) position;
+            if (i >= INVERSE_SEGMENTS) {
+                i = INVERSE_SEGMENTS - 1;
+            }
+            float from = INVERSE[i];
+            u = from + (INVERSE[i + 1] - from) * (position - i);
+        }
+
+        float x = u * mMaxDistance;
+        return distance > 0 ? x : -x;
+    }
+
+    /**
+     * 归一化的正向公式 v = 1-100^(-u/8.75)
+     */
+    private static double forward(double u) {
+        return 1 - Math.pow(100, -u / DAMPING_FACTOR);
+    }
+
+    /**
+     * 归一化的反向公式 u = -8.75 * log100(1-v)
+     */
+    private static double inverse(double v) {
+        return Math.log(1 - v) / Math.log(100) * -DAMPING_FACTOR;
+    }
+}
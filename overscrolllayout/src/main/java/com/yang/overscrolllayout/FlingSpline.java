@@ -0,0 +1,149 @@
+package com.yang.overscrolllayout;
+
+/**
+ * 子view惯性滚动的曲线，和android.widget.OverScroller的fling一致（RecyclerView、NestedScrollView都用它）
+ *
+ * 用于在onNestedFling时预测子view什么时候、以多大的速度滚动到边界：
+ * 给定初速度和到边界的距离，求出滚过这段距离用的时间和那一刻的速度，见{@link #predict(float, float)}。
+ * 曲线的采样表是静态的，预测不分配对象。
+ */
+public final class FlingSpline {
+
+    private static final float INFLEXION = 0.35f;
+    private static final float DECELERATION_RATE = (float) (Math.log(0.78) / Math.log(0.9));
+    private static final float START_TENSION = 0.5f;
+    private static final float END_TENSION = 1.0f;
+    private static final float P1 = START_TENSION * INFLEXION;
+    private static final float P2 = 1.0f - END_TENSION * (1.0f - INFLEXION);
+    //SensorManager.GRAVITY_EARTH
+    private static final float GRAVITY_EARTH = 9.80665f;
+
+    private static final int NB_SAMPLES = 100;
+    //时间均匀分布时的滚动距离比例，和OverScroller的SPLINE_POSITION相同
+    private static final float[] SPLINE_POSITION = new float[NB_SAMPLES + 1];
+
+    private static final long NANOS_PER_MS = 1000000L;
+
+    static {
+        float xMin = 0.0f;
+        for (int i = 0; i < NB_SAMPLES; i++) {
+            final float alpha = (float) i / NB_SAMPLES;
+            float xMax = 1.0f;
+            float x, tx, coef;
+            while (true) {
+                x = xMin + (xMax - xMin) / 2.0f;
+                coef = 3.0f * x * (1.0f - x);
+                tx = coef * ((1.0f - x) * P1 + x * P2) + x * x * x;
+                if (Math.abs(tx - alpha) < 1E-5) break;
+                if (tx > alpha) xMax = x;
+                else xMin = x;
+            }
+            SPLINE_POSITION[i] = coef * ((1.0f - x) * START_TENSION + x) + x * x * x;
+        }
+        SPLINE_POSITION[NB_SAMPLES] = 1.0f;
+    }
+
+    //摩擦系数乘以物理系数，同OverScroller的mFlingFriction * mPhysicalCoeff
+    private final float mFrictionCoeff;
+
+    private long mTimeNanos;
+    private float mVelocity;
+
+    /**
+     * @param ppi 屏幕密度，DisplayMetrics.density * 160
+     * @param friction 摩擦系数，ViewConfiguration.getScrollFriction()
+     */
+    public FlingSpline(float ppi, float friction) {
+        if (ppi <= 0 || friction <= 0) {
+            throw new IllegalArgumentException("ppi and friction must be > 0");
+        }
+        float physicalCoeff = GRAVITY_EARTH * 39.37f * ppi * 0.84f;
+        mFrictionCoeff = friction * physicalCoeff;
+    }
+
+    /**
+     * 初速度为velocity的fling总共滚动的距离，单位px，没有正负
+     */
+    public double getDistance(float velocity) {
+        double l = getDeceleration(velocity);
+        return mFrictionCoeff * Math.exp(DECELERATION_RATE / (DECELERATION_RATE - 1.0) * l);
+    }
+
+    /**
+     * 初速度为velocity的fling的时长，单位纳秒。OverScroller按整毫秒计算
+     */
+    public long getDurationNanos(float velocity) {
+        double l = getDeceleration(velocity);
+        return (long) (1000.0 * Math.exp(l / (DECELERATION_RATE - 1.0))) * NANOS_PER_MS;
+    }
+
+    private double getDeceleration(float velocity) {
+        return Math.log(INFLEXION * Math.abs(velocity) / mFrictionCoeff);
+    }
+
+    /**
+     * 预测初速度为velocity的fling滚过distance的时间和速度，结果用{@link #getTimeNanos()}、{@link #getVelocity()}取得
+     *
+     * @param velocity 初速度，单位px/s
+     * @param distance 到边界的距离，单位px，没有正负
+     * @return fling能否滚过这段距离，不能时不会到达边界
+     */
+    public boolean predict(float velocity, float distance) {
+        mTimeNanos = 0;
+        mVelocity = 0;
+        if (velocity == 0 || distance < 0) {
+            return false;
+        }
+        double total = getDistance(velocity);
+        long duration = getDurationNanos(velocity);
+        if (duration <= 0 || distance > total) {
+            return false;
+        }
+        //distance / total落在采样表的哪一段，段内距离随时间线性变化
+        float ratio = (float) (distance / total);
+        int index = findSegment(ratio);
+        float dInf = SPLINE_POSITION[index];
+        float dSup = SPLINE_POSITION[index + 1];
+        float velocityCoef = (dSup - dInf) * NB_SAMPLES;
+        float t = (float) index / NB_SAMPLES;
+        if (velocityCoef > 0 && ratio > dInf) {
+            t += (ratio - dInf) / (dSup - dInf) / NB_SAMPLES;
+        }
+
+        mTimeNanos = (long) (t * duration);
+        float speed = (float) (velocityCoef * total / (duration / 1e9));
+        mVelocity = velocity > 0 ? speed : -speed;
+        return true;
+    }
+
+    /**
+     * SPLINE_POSITION[index] <= ratio <= SPLINE_POSITION[index + 1]
+     */
+    private static int findSegment(float ratio) {
+        int low = 0;
+        int high = NB_SAMPLES - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (SPLINE_POSITION[mid] <= ratio) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * {@link #predict(float, float)}求出的到达边界用的时间，单位纳秒
+     */
+    public long getTimeNanos() {
+        return mTimeNanos;
+    }
+
+    /**
+     * {@link #predict(float, float)}求出的到达边界时的速度，单位px/s，方向和初速度相同
+     */
+    public float getVelocity() {
+        return mVelocity;
+    }
+}
@@ -0,0 +1,153 @@
+package com.yang.overscrolllayout;
+
+/**
+ * 根据惯性滚动（TYPE_NON_TOUCH）时每一帧嵌套滚动的距离估算子view的滚动速度
+ *
+ * 最近的采样保存在固定大小的环形缓冲区里，只用最新采样之前{@link #HORIZON_NANOS}内的采样，
+ * 对累计位移和时间做二次最小二乘拟合 x(t) = a + bt + ct²，最新采样时刻的速度就是b，fling的减速也能拟合出来；
+ * 采样点不够或者时间分布退化时用一次拟合。添加采样不分配对象。
+ */
+public final class FlingVelocityEstimator {
+
+    /**
+     * 环形缓冲区的大小
+     */
+    public static final int CAPACITY = 16;
+
+    /**
+     * 只使用最新采样之前这段时间内的采样，单位纳秒
+     */
+    public static final long HORIZON_NANOS = 100000000L;
+
+    private static final double NANOS_PER_SECOND = 1000000000d;
+
+    private final long[] mTimes = new long[CAPACITY];
+    //累计位移
+    private final float[] mPositionsX = new float[CAPACITY];
+    private final float[] mPositionsY = new float[CAPACITY];
+
+    //最新采样的下标
+    private int mHead = -1;
+    private int mSize = 0;
+
+    private float mVelocityX;
+    private float mVelocityY;
+
+    public void clear() {
+        mHead = -1;
+        mSize = 0;
+        mVelocityX = 0;
+        mVelocityY = 0;
+    }
+
+    public boolean isEmpty() {
+        return mSize == 0;
+    }
+
+    /**
+     * 添加一次滚动，同一时间的多次滚动合并为一个采样
+     *
+     * @param timeNanos 滚动的时间，一般是这一帧的动画时间
+     * @param dx 滚动距离，单位px
+     * @param dy 滚动距离，单位px
+     */
+    public void addMovement(long timeNanos, float dx, float dy) {
+        if (mSize > 0 && mTimes[mHead] == timeNanos) {
+            mPositionsX[mHead] += dx;
+            mPositionsY[mHead] += dy;
+            return;
+        }
+        float x = mSize > 0 ? mPositionsX[mHead] + dx : dx;
+        float y = mSize > 0 ? mPositionsY[mHead] + dy : dy;
+        mHead = (mHead + 1) % CAPACITY;
+        mTimes[mHead] = timeNanos;
+        mPositionsX[mHead] = x;
+        mPositionsY[mHead] = y;
+        if (mSize < CAPACITY) {
+            mSize++;
+        }
+    }
+
+    /**
+     * 计算最新采样时刻的速度，结果用{@link #getVelocityX()}、{@link #getVelocityY()}取得
+     */
+    public void computeVelocity() {
+        mVelocityX = 0;
+        mVelocityY = 0;
+        if (mSize < 2) {
+            return;
+        }
+        long newestTime = mTimes[mHead];
+        float newestX = mPositionsX[mHead];
+        float newestY = mPositionsY[mHead];
+
+        //时间相对最新采样，单位秒，都小于等于0
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0, s4 = 0;
+        double sx = 0, stx = 0, st2x = 0;
+        double sy = 0, sty = 0, st2y = 0;
+        for (int i = 0; i < mSize; i++) {
+            int index = (mHead - i + CAPACITY) % CAPACITY;
+            long age = newestTime - mTimes[index];
+            if (age > HORIZON_NANOS || age < 0) {
+                break;
+            }
+            double t = -age / NANOS_PER_SECOND;
+            double t2 = t * t;
+            double x = mPositionsX[index] - newestX;
+            double y = mPositionsY[index] - newestY;
+            s0 += 1;
+            s1 += t;
+            s2 += t2;
+            s3 += t2 * t;
+            s4 += t2 * t2;
+            sx += x;
+            stx += t * x;
+            st2x += t2 * x;
+            sy += y;
+            sty += t * y;
+            st2y += t2 * y;
+        }
+        if (s0 < 2) {
+            return;
+        }
+
+        //二次拟合的正规方程，用克拉默法则求一次项系数
+        double det = s0 * (s2 * s4 - s3 * s3) - s1 * (s1 * s4 - s3 * s2) + s2 * (s1 * s3 - s2 * s2);
+        if (s0 >= 3 && Math.abs(det) > 1e-18) {
+            mVelocityX = (float) (solveLinearTerm(s0, s1, s2, s3, s4, sx, stx, st2x) / det);
+            mVelocityY = (float) (solveLinearTerm(s0, s1, s2, s3, s4, sy, sty, st2y) / det);
+            return;
+        }
+        double linearDet = s0 * s2 - s1 * s1;
+        if (Math.abs(linearDet) > 1e-18) {
+            mVelocityX = (float) ((s0 * stx - s1 * sx) / linearDet);
+            mVelocityY = (float) ((s0 * sty - s1 * sy) / linearDet);
+        }
+    }
+
+    /**
+     * 正规方程
+     * | s0 s1 s2 | |a|   | sx  |
+     * | s1 s2 s3 | |b| = | stx |
+     * | s2 s3 s4 | |c|   | st2x|
+     * 把第二列换成右边的向量后的行列式
+     */
+    private static double solveLinearTerm(double s0, double s1, double s2, double s3, double s4,
+                                          double sx, double stx, double st2x) {
+        return s0 * (stx * s4 - s3 * st2x) - sx * (s1 * s4 - s3 * s2) + s2 * (s1 * st2x - stx * s2);
+    }
+
+    /**
+     * 单位px/s，方向和滚动距离相同
+     */
+    public float getVelocityX() {
+        return mVelocityX;
+    }
+
+    /**
+     * 单位px/s，方向和滚动距离相同
+     */
+    public float getVelocityY() {
+        return mVelocityY;
+    }
+}
@@ -0,0 +1,74 @@
+package com.yang.overscrolllayout;
+
+/**
+ * 写时复制的监听器集合
+ *
+ * 添加、删除时重新创建数组，分发时用{@link #getArray()}取得当前数组按下标遍历，
+ * 分发过程中不创建迭代器，也不会因为在回调中添加、删除监听器抛出ConcurrentModificationException。
+ * 回调中的添加、删除从下一次分发开始生效。只能在主线程使用。
+ *
+ * @param <T> 监听器类型
+ */
+public final class ListenerArray<T> {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private Object[] mArray = EMPTY;
+
+    public void add(T listener) {
+        Object[] old = mArray;
+        Object[] array = new Object[old.length + 1];
+        System.arraycopy(old, 0, array, 0, old.length);
+        array[old.length] = listener;
+        mArray = array;
+    }
+
+    public boolean remove(T listener) {
+        Object[] old = mArray;
+        int index = indexOf(old, listener);
+        if (index < 0) {
+            return false;
+        }
+        if (old.length == 1) {
+            mArray = EMPTY;
+            return true;
+        }
+        Object[] array = new Object[old.length - 1];
+        System.arraycopy(old, 0, array, 0, index);
+        System.arraycopy(old, index + 1, array, index, old.length - index - 1);
+        mArray = array;
+        return true;
+    }
+
+    public boolean contains(T listener) {
+        return indexOf(mArray, listener) >= 0;
+    }
+
+    public void clear() {
+        mArray = EMPTY;
+    }
+
+    public int size() {
+        return mArray.length;
+    }
+
+    public boolean isEmpty() {
+        return mArray.length == 0;
+    }
+
+    /**
+     * 当前监听器的快照，只能读取，不能修改
+     */
+    public Object[] getArray() {
+        return mArray;
+    }
+
+    private static int indexOf(Object[] array, Object listener) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == listener) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,149 @@
+package com.yang.overscrolllayout;
+
+/**
+ * 惯性滑动到边界后的过度滚动衰减模型，按时间计算，和刷新率无关
+ *
+ * 速度按指数衰减 v(t) = v0 * e^(-t/τ)
+ * 位移 s(t) = v0 * τ * (1 - e^(-t/τ))
+ *
+ * 每一帧直接用帧时间求位移，不累加每帧的增量，
+ * 所以60/90/120/144Hz下得到的是同一条曲线，丢帧后下一帧也会落回曲线上。
+ */
+public final class OverScrollDecay {
+
+    /**
+     * 默认的时间常数τ，单位秒。
+     * 取值使总位移和原来60Hz下按帧衰减（每帧乘以0.85^(2n)）的总位移一致
+     */
+    public static final float DEFAULT_TIME_CONSTANT = 0.0215f;
+
+    //剩余位移小于这个值时结束，单位px
+    private static final float STOP_DISTANCE = 0.5f;
+
+    private static final float NANOS_PER_SECOND = 1000000000f;
+
+    private float mTimeConstant = DEFAULT_TIME_CONSTANT;
+
+    private float mInitialVelocity;
+    private long mStartTimeNanos;
+
+    private float mOffset;
+    private float mVelocity;
+    private boolean mFinished = true;
+
+    public OverScrollDecay() {
+    }
+
+    public OverScrollDecay(float timeConstant) {
+        setTimeConstant(timeConstant);
+    }
+
+    public void setTimeConstant(float timeConstant) {
+        if (timeConstant <= 0) {
+            throw new IllegalArgumentException("timeConstant must be greater than 0");
+        }
+        mTimeConstant = timeConstant;
+    }
+
+    public float getTimeConstant() {
+        return mTimeConstant;
+    }
+
+    /**
+     * @param velocity 初始速度，单位px/s
+     * @param startTimeNanos 开始时间，和Choreographer帧时间同一时间基准
+     */
+    public void start(float velocity, long startTimeNanos) {
+        mInitialVelocity = velocity;
+        mStartTimeNanos = startTimeNanos;
+        mOffset = 0;
+        mVelocity = velocity;
+        mFinished = Math.abs(velocity) * mTimeConstant < STOP_DISTANCE;
+    }
+
+    /**
+     * 计算frameTimeNanos时的位移和速度
+     *
+     * @return 是否还在运动
+     */
+    public boolean update(long frameTimeNanos) {
+        if (mFinished) {
+            return false;
+        }
+        float t = (frameTimeNanos - mStartTimeNanos) / NANOS_PER_SECOND;
+        if (t < 0) {
+            t = 0;
+        }
+        float decay = (float) Math.exp(-t / mTimeConstant);
+        mVelocity = mInitialVelocity * decay;
+        mOffset = mInitialVelocity * mTimeConstant * (1 - decay);
+        if (Math.abs(mVelocity) * mTimeConstant < STOP_DISTANCE) {
+            mFinished = true;
+        }
+        return !mFinished;
+    }
+
+    /**
+     * 从开始到结束的时长，单位纳秒
+     *
+     * 剩余位移 |v0|τe^(-t/τ) 小于停止距离时结束，开始时就可以求出
+     */
+    public long getDurationNanos() {
+        float distance = Math.abs(mInitialVelocity) * mTimeConstant;
+        if (distance < STOP_DISTANCE) {
+            return 0;
+        }
+        return (long) (mTimeConstant * Math.log(distance / STOP_DISTANCE) * NANOS_PER_SECOND);
+    }
+
+    /**
+     * timeNanos时的位移，单位px，不改变当前状态
+     */
+    public float getOffsetAt(long timeNanos) {
+        return mInitialVelocity * mTimeConstant * (1 - decayAt(timeNanos));
+    }
+
+    /**
+     * timeNanos时的速度，单位px/s，不改变当前状态
+     */
+    public float getVelocityAt(long timeNanos) {
+        return mInitialVelocity * decayAt(timeNanos);
+    }
+
+    private float decayAt(long timeNanos) {
+        float t = (timeNanos - mStartTimeNanos) / NANOS_PER_SECOND;
+        if (t < 0) {
+            t = 0;
+        }
+        return (float) Math.exp(-t / mTimeConstant);
+    }
+
+    public void abort() {
+        mFinished = true;
+    }
+
+    public boolean isFinished() {
+        return mFinished;
+    }
+
+    /**
+     * 当前位移，单位px
+     */
+    public float getOffset() {
+        return mOffset;
+    }
+
+    /**
+     * 当前速度，单位px/s
+     */
+    public float getVelocity() {
+        return mVelocity;
+    }
+
+    /**
+     * 总位移，单位px
+     */
+    public float getFinalOffset() {
+        return mInitialVelocity * mTimeConstant;
+    }
+}
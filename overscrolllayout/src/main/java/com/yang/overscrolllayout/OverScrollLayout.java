@@ -4,6 +4,7 @@ import android.content.Context;
 import android.content.res.TypedArray;
 import android.util.AttributeSet;
 import android.util.Log;
+import android.view.Choreographer;
 import android.view.View;
 import android.view.ViewConfiguration;
 import android.view.ViewGroup;
@@ -14,6 +15,7 @@ import android.widget.OverScroller;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import androidx.core.view.NestedScrollingParent3;
 import androidx.core.view.NestedScrollingParentHelper;
 import androidx.core.view.ViewCompat;
@@ -22,13 +24,93 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 public class OverScrollLayout extends FrameLayout implements NestedScrollingParent3 {
 
-    public static boolean DEBUG = true;
+    /**
+     * 是否打印调试日志，默认关闭。
+     * 日志调用处都先判断DEBUG再拼接字符串，关闭时没有任何字符串拼接和装箱
+     */
+    public static boolean DEBUG = false;
 
     private static final String TAG = "OverScrollLayout";
 
+    private static final long NANOS_PER_MS = 1000000L;
+
+    //没有预测到达边界的时间
+    private static final long NO_EDGE_PREDICTION = Long.MAX_VALUE;
+
+    //预测的到达边界的时间和实际相差超过两帧时，认为预测不可信（比如滚动范围是估算的），改用估算的速度
+    private static final long EDGE_PREDICTION_TOLERANCE_NANOS = 33 * NANOS_PER_MS;
+
+    /**
+     * 监听器分发方式：每次位移变化立即回调，默认
+     */
+    public static final int DISPATCH_MODE_IMMEDIATE = 0;
+
+    /**
+     * 监听器分发方式：合并到帧，每个方向每帧最多回调一次最新的位移，在绘制之前回调
+     */
+    public static final int DISPATCH_MODE_COALESCED = 1;
+
+    /**
+     * 默认的位移写入阈值，单位px
+     */
+    public static final float DEFAULT_TRANSLATION_EPSILON = 0.1f;
+
+    /**
+     * 回弹方式：OverScroller.springBack，从静止开始回弹，默认
+     *
+     * 只影响拖动松手后的回弹，惯性过度滚动的轨迹在到达边界时整条求出，回来的一段总是弹簧，见{@link OverScrollTrajectory}
+     */
+    public static final int SPRING_BACK_MODE_SCROLLER = 0;
+
+    /**
+     * 回弹方式：弹簧，接过松手时的速度继续回弹
+     */
+    public static final int SPRING_BACK_MODE_SPRING = 1;
+
+    /**
+     * 过度滚动状态：内容view在原位置，或者动画被中止后静止
+     */
+    public static final int OVER_SCROLL_STATE_IDLE = 0;
+
+    /**
+     * 过度滚动状态：手指拖动
+     */
+    public static final int OVER_SCROLL_STATE_DRAGGING = 1;
+
+    /**
+     * 过度滚动状态：子view惯性滚动到边界后，继续向外滑出
+     */
+    public static final int OVER_SCROLL_STATE_FLING_OVERSCROLL = 2;
+
+    /**
+     * 过度滚动状态：回到原位置，包括松手后的回弹和惯性过度滚动回来的一段，以及不可见时暂停的回弹
+     */
+    public static final int OVER_SCROLL_STATE_SETTLING = 3;
+
+    /**
+     * 过度滚动的边界：顶部，内容view向下移动
+     */
+    public static final int EDGE_TOP = 1;
+
+    /**
+     * 过度滚动的边界：底部，内容view向上移动
+     */
+    public static final int EDGE_BOTTOM = 1 << 1;
+
+    /**
+     * 过度滚动的边界：左边，内容view向右移动
+     */
+    public static final int EDGE_LEFT = 1 << 2;
+
+    /**
+     * 过度滚动的边界：右边，内容view向左移动
+     */
+    public static final int EDGE_RIGHT = 1 << 3;
+
     private final NestedScrollingParentHelper mNestedScrollingParentHelper;
 
     private final int[] mNestedScrollingV2ConsumedCompat = new int[2];
@@ -37,8 +119,20 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
 
     private final int mMinimumFlingVelocity;
 
-    private MockFlingRunnable mMockFlingRunnable;
-    private Runnable mOverScrollRunnable = null;
+    //动画驱动，overScroll、springBack共用
+    private final AnimationDriver mAnimationDriver = new AnimationDriver();
+
+    //根据惯性滚动时的嵌套滚动距离估算子view的速度，到达边界时作为过度滚动的初速度
+    private final FlingVelocityEstimator mFlingVelocityEstimator = new FlingVelocityEstimator();
+    //子view正在惯性滚动，还没有到达边界
+    private boolean mTrackingFling = false;
+
+    //onNestedFling时根据速度和子view剩余的滚动距离，预测子view到达边界的时间和那一刻位移的速度
+    private final FlingSpline mFlingSpline;
+    private long mPredictedEdgeTimeX = NO_EDGE_PREDICTION;
+    private long mPredictedEdgeTimeY = NO_EDGE_PREDICTION;
+    private float mPredictedEdgeVelocityX = 0;
+    private float mPredictedEdgeVelocityY = 0;
 
     //滚动view的id
     private int mScrollViewId = View.NO_ID;
@@ -49,11 +143,58 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
     //最大过度滚动的距离，默认1，scrollview的height
     private float mOverScrollDistanceFactor = 1.0f;
 
-    //滚动子view的包装类
+    //回弹方式
+    private int mSpringBackMode = SPRING_BACK_MODE_SCROLLER;
+
+    //监听器分发方式
+    private int mDispatchMode = DISPATCH_MODE_IMMEDIATE;
+
+    //过度滚动时是否把内容view提升为硬件层
+    private boolean mUseHardwareLayer = false;
+
+    //实际位移变化超过这个值才写入View和回调监听器
+    private float mTranslationEpsilon = DEFAULT_TRANSLATION_EPSILON;
+
+    //滚动子view的包装类，支持多个滚动view时为当前正在过度滚动的那个
     private ScrollViewWrapper mScrollView = null;
 
+    //是否支持多个滚动view，开启后任何后代滚动view都可以过度滚动
+    private boolean mMultipleTargets = false;
+
+    //用户注册的滚动view适配器工厂，优先于内置适配器
+    private final List<ScrollTargetAdapter.Factory> mScrollTargetAdapterFactories = new ArrayList<>();
+
     //过度滚动监听器集合
-    private List<OnOverScrollListener> onOverScrollListeners = null;
+    private final ListenerArray<OnOverScrollListener> onOverScrollListeners = new ListenerArray<>();
+
+    //过度滚动的触发距离，写入位移时判断
+    private final ListenerArray<OverScrollThreshold> mThresholds = new ListenerArray<>();
+
+    //过度滚动状态和正在过度滚动的边界
+    private int mOverScrollState = OVER_SCROLL_STATE_IDLE;
+    private int mOverScrollEdges = 0;
+    private final ListenerArray<OnOverScrollStateChangedListener> mStateListeners = new ListenerArray<>();
+
+    //事件追踪，为null时不记录
+    private OverScrollTrace mTrace = null;
+
+    //性能指标，为null时不记录
+    private OverScrollMetrics mMetrics = null;
+
+    //拖动时没有动画帧，由这个回调在帧结束时统计写入次数
+    private final Choreographer.FrameCallback mMetricsFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mMetricsFrameScheduled = false;
+            if (mMetrics != null) {
+                mMetrics.endFrame();
+            }
+        }
+    };
+    private boolean mMetricsFrameScheduled = false;
+
+    //不可见时暂停了过度滚动或回弹，重新可见时从当前位置回弹
+    private boolean mAnimationPaused = false;
 
     public OverScrollLayout(@NonNull Context context) {
         this(context, null);
@@ -70,12 +211,16 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
         mScrollViewId = a.getResourceId(R.styleable.OverScrollLayout_oslScrollView, mScrollViewId);
         mAxis = Axes.values[a.getInt(R.styleable.OverScrollLayout_oslAxis, mAxis.getArrayIndex())];
         mOverScrollDistanceFactor = a.getFloat(R.styleable.OverScrollLayout_oslOverScrollDistanceFactor, mOverScrollDistanceFactor);
+        mSpringBackMode = a.getInt(R.styleable.OverScrollLayout_oslSpringBackMode, mSpringBackMode);
+        mMultipleTargets = a.getBoolean(R.styleable.OverScrollLayout_oslMultipleTargets, mMultipleTargets);
         a.recycle();
 
         mNestedScrollingParentHelper = new NestedScrollingParentHelper(this);
         mScroller = new OverScroller(context);
         ViewConfiguration configuration = ViewConfiguration.get(context);
         mMinimumFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        mFlingSpline = new FlingSpline(context.getResources().getDisplayMetrics().density * 160.0f,
+                ViewConfiguration.getScrollFriction());
     }
 
     @Override
@@ -85,7 +230,7 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
             View view = findViewById(mScrollViewId);
             if (view == null) {
                 throw new RuntimeException("xml中app:oslScrollView配置的view找不到");
-            } else if (!isScrollView(view)) {
+            } else if (findScrollTargetAdapterFactory(view) == null) {
                 throw new RuntimeException("xml中app:oslScrollView配置的view 不符合滚动view");
             }
             setScrollView(view);
@@ -110,17 +255,93 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
         return null;
     }
 
+    /**
+     * 自动查找滚动view时使用，只匹配RecyclerView、NestedScrollView和注册的适配器工厂
+     *
+     * 内置的ScrollingView、NestedScrollingChild适配器几乎匹配所有view，只用于明确指定的滚动view：
+     * xml中配置的app:oslScrollView、setScrollView、多个滚动view时发起嵌套滚动的view
+     */
     public boolean isScrollView(View view) {
-        return view instanceof RecyclerView
-                || view instanceof NestedScrollView;
+        if (view instanceof RecyclerView || view instanceof NestedScrollView) {
+            return true;
+        }
+        for (int i = 0; i < mScrollTargetAdapterFactories.size(); i++) {
+            if (mScrollTargetAdapterFactories.get(i).isScrollTarget(view)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 注册滚动view适配器工厂，后注册的优先，都优先于内置适配器
+     *
+     * 需要在setScrollView之前注册，xml中配置的滚动view在onFinishInflate中绑定
+     */
+    public void addScrollTargetAdapterFactory(@NonNull ScrollTargetAdapter.Factory factory) {
+        mScrollTargetAdapterFactories.add(0, factory);
+    }
+
+    public void removeScrollTargetAdapterFactory(@NonNull ScrollTargetAdapter.Factory factory) {
+        mScrollTargetAdapterFactories.remove(factory);
+    }
+
+    @Nullable
+    private ScrollTargetAdapter.Factory findScrollTargetAdapterFactory(@NonNull View view) {
+        for (int i = 0; i < mScrollTargetAdapterFactories.size(); i++) {
+            ScrollTargetAdapter.Factory factory = mScrollTargetAdapterFactories.get(i);
+            if (factory.isScrollTarget(view)) {
+                return factory;
+            }
+        }
+        return ScrollTargetAdapters.findDefaultFactory(view);
     }
 
     public void setAxes(Axes axes) {
         mAxis = axes;
+        if (mScrollView != null) {
+            mScrollView.setBothAxes(axes == Axes.BOTH);
+        }
         setMaxOverScrollDistance();
     }
 
     public void setScrollView(@NonNull View view) {
+        if (mMultipleTargets) {
+            ScrollViewWrapper wrapper = obtainScrollViewWrapper(view);
+            if (wrapper == null) {
+                wrapper = createScrollViewWrapper(view);
+                view.setTag(R.id.osl_scroll_view_wrapper, wrapper);
+            }
+            activateScrollView(wrapper);
+            return;
+        }
+        if (mScrollView != null) {
+            mScrollView.getAdapter().onDetach();
+        }
+        mScrollView = createScrollViewWrapper(view);
+        if (ViewCompat.isAttachedToWindow(this)) {
+            mScrollView.getAdapter().onAttach();
+        }
+        configureScrollView(mScrollView);
+    }
+
+    /**
+     * 是否支持多个滚动view，默认关闭
+     *
+     * 开启后不再只绑定一个滚动view，任何后代滚动view开始嵌套滚动时都可以过度滚动，比如每页一个RecyclerView的ViewPager2。
+     * 包装类在第一次嵌套滚动时创建，缓存在滚动view的tag上，随滚动view一起回收。同一时间只有一个滚动view过度滚动，
+     * 切换时上一个滚动view直接回到原位置。
+     */
+    public void setMultipleTargetsEnabled(boolean enabled) {
+        mMultipleTargets = enabled;
+    }
+
+    public boolean isMultipleTargetsEnabled() {
+        return mMultipleTargets;
+    }
+
+    @NonNull
+    private ScrollViewWrapper createScrollViewWrapper(@NonNull View view) {
         View contentView = view;
         while (contentView.getParent() != this) {
             ViewParent parent = contentView.getParent();
@@ -128,13 +349,80 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
                 contentView = (View) parent;
             }
         }
-        mScrollView = new ScrollViewWrapper(contentView, view);
-        mScrollView.setListeners(onOverScrollListeners);
+        ScrollTargetAdapter.Factory factory = findScrollTargetAdapterFactory(view);
+        ScrollTargetAdapter adapter = factory != null ? factory.create(view) : new ScrollTargetAdapters.ViewAdapter(view);
+        return new ScrollViewWrapper(contentView, view, adapter);
+    }
+
+    /**
+     * 同步当前的配置，包装类只有在过度滚动时才需要，不活跃的包装类在切换时再同步
+     */
+    private void configureScrollView(@NonNull ScrollViewWrapper wrapper) {
+        wrapper.setListeners(onOverScrollListeners);
+        wrapper.setThresholds(mThresholds);
+        wrapper.setTrace(mTrace);
+        wrapper.setMetrics(mMetrics);
+        wrapper.setCoalesceDispatch(mDispatchMode == DISPATCH_MODE_COALESCED);
+        wrapper.setUseHardwareLayer(mUseHardwareLayer);
+        wrapper.setTranslationEpsilon(mTranslationEpsilon);
+        wrapper.setBothAxes(mAxis == Axes.BOTH);
         setMaxOverScrollDistance();
     }
 
+    /**
+     * 查找滚动view的包装类，先看当前的，再看tag上缓存的，不是滚动view时返回null
+     */
+    @Nullable
+    private ScrollViewWrapper obtainScrollViewWrapper(@NonNull View target) {
+        if (mScrollView != null && mScrollView.getScrollView() == target) {
+            return mScrollView;
+        }
+        Object tag = target.getTag(R.id.osl_scroll_view_wrapper);
+        if (tag instanceof ScrollViewWrapper && ((ScrollViewWrapper) tag).getContentView().getParent() == this) {
+            return (ScrollViewWrapper) tag;
+        }
+        if (findScrollTargetAdapterFactory(target) == null) {
+            return null;
+        }
+        ScrollViewWrapper wrapper = createScrollViewWrapper(target);
+        target.setTag(R.id.osl_scroll_view_wrapper, wrapper);
+        return wrapper;
+    }
+
+    /**
+     * 切换当前过度滚动的滚动view，上一个直接回到原位置
+     */
+    private void activateScrollView(@NonNull ScrollViewWrapper wrapper) {
+        if (mScrollView == wrapper) {
+            return;
+        }
+        ScrollViewWrapper previous = mScrollView;
+        if (previous != null) {
+            abortAnimation();
+            previous.translate(0, 0);
+            previous.flushPendingDispatch();
+            previous.releaseHardwareLayer();
+            previous.getAdapter().onDetach();
+        }
+        if (DEBUG) log("activateScrollView: " + wrapper.getScrollView());
+        mScrollView = wrapper;
+        if (ViewCompat.isAttachedToWindow(this)) {
+            wrapper.getAdapter().onAttach();
+        }
+        configureScrollView(wrapper);
+    }
+
     public void setMaxOverScrollDistance() {
         if (mScrollView != null) {
+            if (mAxis == Axes.BOTH) {
+                //两个方向分别按宽、高计算
+                int horizontal = (int) (mScrollView.getContentView().getWidth() * mOverScrollDistanceFactor);
+                int vertical = (int) (mScrollView.getContentView().getHeight() * mOverScrollDistanceFactor);
+                if (DEBUG) log("setMaxOverScrollDistance: " + horizontal + "  " + vertical);
+                mScrollView.setMaxOverScrollDistance(horizontal, vertical);
+                return;
+            }
+
             int maxOverScrollDistance = 0;
 
             if (mAxis == Axes.HORIZONTAL) {
@@ -145,7 +433,7 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
                 maxOverScrollDistance = (int) (height * mOverScrollDistanceFactor);
             }
 
-            log("setMaxOverScrollDistance: " + maxOverScrollDistance);
+            if (DEBUG) log("setMaxOverScrollDistance: " + maxOverScrollDistance);
             mScrollView.setMaxOverScrollDistance(maxOverScrollDistance);
         }
     }
@@ -160,27 +448,203 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
         }
     }
 
+    /**
+     * 设置回弹方式
+     *
+     * @param mode {@link #SPRING_BACK_MODE_SCROLLER}、{@link #SPRING_BACK_MODE_SPRING}
+     */
+    public void setSpringBackMode(int mode) {
+        if (mode != SPRING_BACK_MODE_SCROLLER && mode != SPRING_BACK_MODE_SPRING) {
+            throw new IllegalArgumentException("unknown spring back mode: " + mode);
+        }
+        mSpringBackMode = mode;
+    }
+
+    public int getSpringBackMode() {
+        return mSpringBackMode;
+    }
+
+    /**
+     * 设置OnOverScrollListener的分发方式
+     *
+     * 位移变化很频繁（高采样率的触摸、每帧回弹两个方向）而监听器很重时，
+     * 使用{@link #DISPATCH_MODE_COALESCED}，每个方向每帧只回调一次
+     *
+     * @param mode {@link #DISPATCH_MODE_IMMEDIATE}、{@link #DISPATCH_MODE_COALESCED}
+     */
+    public void setDispatchMode(int mode) {
+        if (mode != DISPATCH_MODE_IMMEDIATE && mode != DISPATCH_MODE_COALESCED) {
+            throw new IllegalArgumentException("unknown dispatch mode: " + mode);
+        }
+        mDispatchMode = mode;
+        if (mScrollView != null) {
+            mScrollView.setCoalesceDispatch(mode == DISPATCH_MODE_COALESCED);
+        }
+    }
+
+    public int getDispatchMode() {
+        return mDispatchMode;
+    }
+
+    /**
+     * 过度滚动时是否把内容view提升为硬件层，默认关闭
+     *
+     * 开启后，第一次出现过度滚动时把内容view设置为LAYER_TYPE_HARDWARE，回到原位置后恢复，
+     * 拖动和回弹过程中只需要变换图层，不用每帧重新绘制内容。内容在动画过程中不断变化（比如RecyclerView的item动画）时不提升
+     */
+    public void setUseHardwareLayer(boolean useHardwareLayer) {
+        mUseHardwareLayer = useHardwareLayer;
+        if (mScrollView != null) {
+            mScrollView.setUseHardwareLayer(useHardwareLayer);
+        }
+    }
+
+    /**
+     * 设置位移的写入阈值，阻尼后的实际位移变化超过epsilon才写入View的translation并回调监听器，
+     * 回到原位置时总会写入。默认{@link #DEFAULT_TRANSLATION_EPSILON}
+     *
+     * @param epsilon 单位px，不能小于0，0表示每次变化都写入
+     */
+    public void setTranslationEpsilon(float epsilon) {
+        if (!(epsilon >= 0)) {
+            throw new IllegalArgumentException("epsilon must be >= 0: " + epsilon);
+        }
+        mTranslationEpsilon = epsilon;
+        if (mScrollView != null) {
+            mScrollView.setTranslationEpsilon(epsilon);
+        }
+    }
+
+    public float getTranslationEpsilon() {
+        return mTranslationEpsilon;
+    }
+
+    /**
+     * 设置弹簧的刚度和阻尼比，用于{@link #SPRING_BACK_MODE_SPRING}下的回弹和惯性过度滚动回来的一段
+     *
+     * @param stiffness 刚度，越大回弹越快
+     * @param dampingRatio 阻尼比，1为临界阻尼，小于1会越过原位置再弹回
+     */
+    public void setSpring(float stiffness, float dampingRatio) {
+        mAnimationDriver.setSpring(stiffness, dampingRatio);
+    }
+
     @Override
     protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
         super.onLayout(changed, left, top, right, bottom);
-        log("onLayout");
+        if (DEBUG) log("onLayout");
         //重新布局后，layout变化了，重新设置最大过度滚动距离
         setMaxOverScrollDistance();
     }
 
     public void addOnOverScrollListener(@NonNull OnOverScrollListener listener) {
-        if (onOverScrollListeners == null) {
-            onOverScrollListeners = new ArrayList<>();
-        }
+        //mScrollView持有的是同一个集合，不需要再同步
         onOverScrollListeners.add(listener);
+    }
+
+    /**
+     * 添加在executor上回调的监听器，见{@link AsyncOverScrollListener}。
+     * 主线程只记录每个方向最新的位移，回调跟不上时合并，不会积压
+     *
+     * @param executor 执行回调的Executor
+     */
+    public void addOnOverScrollListener(@NonNull OnOverScrollListener listener, @NonNull Executor executor) {
+        onOverScrollListeners.add(new AsyncOverScrollListener(listener, executor));
+    }
+
+    /**
+     * 可以在OnOverScrollListener回调中调用，从下一次回调开始生效。
+     * 也可以移除{@link #addOnOverScrollListener(OnOverScrollListener, Executor)}添加的监听器，已经提交的回调不再执行
+     */
+    public void removeOnOverScrollListener(@NonNull OnOverScrollListener listener) {
+        if (onOverScrollListeners.remove(listener)) {
+            return;
+        }
+        Object[] array = onOverScrollListeners.getArray();
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] instanceof AsyncOverScrollListener
+                    && ((AsyncOverScrollListener) array[i]).getDelegate() == listener) {
+                AsyncOverScrollListener async = (AsyncOverScrollListener) array[i];
+                async.cancel();
+                onOverScrollListeners.remove(async);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 添加过度滚动的触发距离，实际位移越过时回调，见{@link OverScrollThreshold}
+     *
+     * 同一个实例只能添加到一个OverScrollLayout
+     */
+    public void addOverScrollThreshold(@NonNull OverScrollThreshold threshold) {
+        if (!mThresholds.contains(threshold)) {
+            mThresholds.add(threshold);
+        }
+    }
+
+    /**
+     * 可以在回调中调用，从下一次判断开始生效
+     */
+    public void removeOverScrollThreshold(@NonNull OverScrollThreshold threshold) {
+        mThresholds.remove(threshold);
+    }
+
+    /**
+     * 开启事件追踪，事件记录在容量为capacity的环形缓冲区中，记录过程不分配对象
+     */
+    public void startTrace(int capacity) {
+        mTrace = new OverScrollTrace(capacity);
         if (mScrollView != null) {
-            mScrollView.setListeners(onOverScrollListeners);
+            mScrollView.setTrace(mTrace);
         }
     }
 
-    public void removeOnOverScrollListener(@NonNull OnOverScrollListener listener) {
-        if (onOverScrollListeners != null) {
-            onOverScrollListeners.remove(listener);
+    public void stopTrace() {
+        mTrace = null;
+        if (mScrollView != null) {
+            mScrollView.setTrace(null);
+        }
+    }
+
+    /**
+     * @return 事件追踪，没有开启时返回null
+     */
+    @Nullable
+    public OverScrollTrace getTrace() {
+        return mTrace;
+    }
+
+    /**
+     * 开启或关闭性能指标统计，关闭时只剩下判空的开销
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        if (enabled == (mMetrics != null)) {
+            return;
+        }
+        mMetrics = enabled ? new OverScrollMetrics() : null;
+        if (mScrollView != null) {
+            mScrollView.setMetrics(mMetrics);
+        }
+    }
+
+    /**
+     * @return 性能指标，没有开启时返回null。可以调用{@link OverScrollMetrics#copyTo(OverScrollMetrics)}做快照，
+     * {@link OverScrollMetrics#reset()}清空
+     */
+    @Nullable
+    public OverScrollMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * 拖动过程中写入了translation，在帧结束时统计写入次数
+     */
+    private void scheduleMetricsFrame() {
+        if (mMetrics != null && mMetrics.hasFrameWrites() && !mMetricsFrameScheduled
+                && mAnimationDriver.getState() == AnimationDriver.STATE_IDLE) {
+            mMetricsFrameScheduled = true;
+            Choreographer.getInstance().postFrameCallback(mMetricsFrameCallback);
         }
     }
 
@@ -189,6 +653,13 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
         return mNestedScrollingParentHelper.getNestedScrollAxes();
     }
 
+    /**
+     * 嵌套滚动的回调在这一帧的输入事件中，追踪的事件使用这一帧的动画时间
+     */
+    private void traceFrameTime() {
+        if (mTrace != null) mTrace.setFrameTime(AnimationUtils.currentAnimationTimeMillis() * NANOS_PER_MS);
+    }
+
     @Override
     public boolean onStartNestedScroll(@NonNull View child, @NonNull View target, int axes) {
         return onStartNestedScroll(child, target, axes, ViewCompat.TYPE_TOUCH);
@@ -196,8 +667,19 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
 
     @Override
     public boolean onStartNestedScroll(@NonNull View child, @NonNull View target, int axes, int type) {
-        log("onStartNestedScroll:  " + "  axes:" + axes + "  type:" + type);
-        return mAxis.compareNestedScrollAxes(axes) & mScrollView != null && mScrollView.getScrollView() == target;
+        if (DEBUG) log("onStartNestedScroll:  " + "  axes:" + axes + "  type:" + type);
+        traceFrameTime();
+        if (mTrace != null) mTrace.record(OverScrollTrace.EVENT_START_NESTED_SCROLL, axes, type);
+        if (!mAxis.compareNestedScrollAxes(axes)) {
+            return false;
+        }
+        ScrollViewWrapper wrapper;
+        if (mMultipleTargets) {
+            wrapper = obtainScrollViewWrapper(target);
+        } else {
+            wrapper = mScrollView != null && mScrollView.getScrollView() == target ? mScrollView : null;
+        }
+        return wrapper != null && wrapper.getAdapter().supportsAxes(axes);
     }
 
     @Override
@@ -207,11 +689,32 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
 
     @Override
     public void onNestedScrollAccepted(@NonNull View child, @NonNull View target, int axes, int type) {
-        log("onNestedScrollAccepted:  " + "  axes:" + axes + "  type:" + type);
+        if (DEBUG) log("onNestedScrollAccepted:  " + "  axes:" + axes + "  type:" + type);
+        traceFrameTime();
+        if (mTrace != null) mTrace.record(OverScrollTrace.EVENT_NESTED_SCROLL_ACCEPTED, axes, type);
         mNestedScrollingParentHelper.onNestedScrollAccepted(child, target, axes, type);
+        if (mMultipleTargets) {
+            ScrollViewWrapper wrapper = obtainScrollViewWrapper(target);
+            if (wrapper != null) {
+                activateScrollView(wrapper);
+            }
+        }
+        if (mScrollView != null) {
+            mScrollView.getAdapter().onNestedScrollStarted(type);
+        }
 
         if (type == ViewCompat.TYPE_TOUCH) {
+            //打断回弹或者惯性过度滚动，从屏幕上的位置接着拖动
+            if (mScrollView != null && isTranslated(mScrollView)) {
+                setOverScrollState(OVER_SCROLL_STATE_DRAGGING, edgesOf(mScrollView.getTranslationX(), mScrollView.getTranslationY()));
+            }
             abortAnimation();
+            if (mScrollView != null) {
+                mScrollView.takeOverTranslation();
+            }
+        } else {
+            mFlingVelocityEstimator.clear();
+            mTrackingFling = true;
         }
     }
 
@@ -222,8 +725,15 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
 
     @Override
     public void onNestedPreScroll(@NonNull View target, int dx, int dy, @NonNull int[] consumed, int type) {
+        long startTime = mMetrics != null ? System.nanoTime() : 0;
+        traceFrameTime();
         onNestedScrollInternal(dx, dy, type, consumed);
-        log("onNestedPreScroll: dx:" + dx + "  dy:" + dy + "  consumed:" + consumed[0] + "-" + consumed[1]);
+        if (DEBUG) log("onNestedPreScroll: dx:" + dx + "  dy:" + dy + "  consumed:" + consumed[0] + "-" + consumed[1]);
+        if (mTrace != null) mTrace.record(OverScrollTrace.EVENT_NESTED_PRE_SCROLL, dx, dy, consumed[0], consumed[1]);
+        if (mMetrics != null) {
+            mMetrics.record(OverScrollMetrics.NESTED_PRE_SCROLL, System.nanoTime() - startTime);
+            scheduleMetricsFrame();
+        }
     }
 
     @Override
@@ -238,45 +748,147 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
 
     @Override
     public void onNestedScroll(@NonNull View target, int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed, int type, @NonNull int[] consumed) {
+        long startTime = mMetrics != null ? System.nanoTime() : 0;
+        traceFrameTime();
+        if ((dxUnconsumed != 0 || dyUnconsumed != 0) && mScrollView != null) {
+            //有没消费完的距离说明到了边界，先让适配器的缓存失效，这一帧就开始过度滚动
+            mScrollView.getAdapter().onUnconsumedScroll(dxUnconsumed, dyUnconsumed);
+        }
         onNestedScrollInternal(dxUnconsumed, dyUnconsumed, type, consumed);
-        log("onNestedScroll: "
+        if (DEBUG) log("onNestedScroll: "
                 + "dxyConsumed:" + dxConsumed + "-" + dyConsumed
                 + "  dxyUnconsumed:" + dxUnconsumed + "-" + dyUnconsumed
                 + "  consumed:" + consumed[0] + "-" + consumed[1]);
+        if (mTrace != null) mTrace.record(OverScrollTrace.EVENT_NESTED_SCROLL, dxUnconsumed, dyUnconsumed, consumed[0], consumed[1]);
 
-        if (type == ViewCompat.TYPE_NON_TOUCH && (dxUnconsumed != 0 || dyUnconsumed != 0) && !mScroller.isFinished() && mMockFlingRunnable != null) {
-            //NestedScrollingChild fling到了边界，不能再消耗滚动距离，开启过度滚动并回弹
-
-            //这个速度和onNestedPreFling、onNestedFling的速度不是一个数量级的
-            float currVelocity = mMockFlingRunnable.getCurrVelocity();
+        if (type == ViewCompat.TYPE_NON_TOUCH && mTrackingFling) {
+            onFlingScroll(dxConsumed, dyConsumed, dxUnconsumed, dyUnconsumed);
+        }
 
-            abortAnimation();
-            if (Math.abs(currVelocity) >= mMinimumFlingVelocity) {
-                overScroll(target, (int) currVelocity);
-            }
+        if (mMetrics != null) {
+            mMetrics.record(OverScrollMetrics.NESTED_SCROLL, System.nanoTime() - startTime);
+            scheduleMetricsFrame();
         }
     }
 
     @Override
     public boolean onNestedPreFling(@NonNull View target, float velocityX, float velocityY) {
-        log("onNestedPreFling : velocityX:"  + velocityX + "   velocityY:" + velocityY + "   translationY:" + target.getTranslationY());
+        if (DEBUG) log("onNestedPreFling : velocityX:"  + velocityX + "   velocityY:" + velocityY + "   translationY:" + target.getTranslationY());
+        traceFrameTime();
+        if (mTrace != null) mTrace.record(OverScrollTrace.EVENT_NESTED_PRE_FLING, velocityX, velocityY);
 
         //如果发生了过度滚动，则springBack返回true，消耗PreFling，子view不fling。
         //   没有发生过度滚动，则springBack返回false，不消耗PreFling，子view fling。
-        return springBack();
+        //fling的速度是内容滚动的方向，和位移的方向相反
+        return springBack(-velocityX, -velocityY);
     }
 
     @Override
     public boolean onNestedFling(@NonNull View target, float velocityX, float velocityY, boolean consumed) {
-        log("onNestedFling : velocityX:"  + velocityX + "   velocityY:" + velocityY + "  consumed:" + consumed);
+        if (DEBUG) log("onNestedFling : velocityX:"  + velocityX + "   velocityY:" + velocityY + "  consumed:" + consumed);
+        traceFrameTime();
+        if (mTrace != null) mTrace.record(OverScrollTrace.EVENT_NESTED_FLING, velocityX, velocityY, consumed ? 1 : 0, 0);
+        clearEdgePrediction();
         if (consumed) {
-            if (mAxis == Axes.HORIZONTAL) {
-                mockFling(target, -(int) velocityX);
+            predictEdge(velocityX, velocityY);
+        }
+        return false;
+    }
+
+    /**
+     * 子view将以这个速度fling，用它的滚动曲线和剩余的滚动距离预测到达边界的时间和速度，
+     * 到达边界的那一帧直接用预测的值开始过度滚动
+     *
+     * 适配器不知道剩余的滚动距离时不预测，到达边界时用估算的速度
+     *
+     * @param velocityX 子view内容滚动的速度，和位移的方向相反
+     * @param velocityY 子view内容滚动的速度，和位移的方向相反
+     */
+    private void predictEdge(float velocityX, float velocityY) {
+        if (mScrollView == null) {
+            return;
+        }
+        ScrollTargetAdapter adapter = mScrollView.getAdapter();
+        //在动画帧内调用，和子view的OverScroller开始fling的时间相同
+        long now = AnimationUtils.currentAnimationTimeMillis() * NANOS_PER_MS;
+        if (velocityX != 0 && mAxis.compareNestedScrollAxes(ViewCompat.SCROLL_AXIS_HORIZONTAL)) {
+            int remaining = adapter.getHorizontalScrollRemaining(velocityX > 0 ? 1 : -1);
+            if (remaining >= 0 && mFlingSpline.predict(velocityX, remaining)) {
+                mPredictedEdgeTimeX = now + mFlingSpline.getTimeNanos();
+                mPredictedEdgeVelocityX = -mFlingSpline.getVelocity();
+            }
+        }
+        if (velocityY != 0 && mAxis.compareNestedScrollAxes(ViewCompat.SCROLL_AXIS_VERTICAL)) {
+            int remaining = adapter.getVerticalScrollRemaining(velocityY > 0 ? 1 : -1);
+            if (remaining >= 0 && mFlingSpline.predict(velocityY, remaining)) {
+                mPredictedEdgeTimeY = now + mFlingSpline.getTimeNanos();
+                mPredictedEdgeVelocityY = -mFlingSpline.getVelocity();
+            }
+        }
+        if (DEBUG) log("predictEdge: timeX:" + mPredictedEdgeTimeX + "  velocityX:" + mPredictedEdgeVelocityX
+                + "  timeY:" + mPredictedEdgeTimeY + "  velocityY:" + mPredictedEdgeVelocityY);
+    }
+
+    private void clearEdgePrediction() {
+        mPredictedEdgeTimeX = NO_EDGE_PREDICTION;
+        mPredictedEdgeTimeY = NO_EDGE_PREDICTION;
+        mPredictedEdgeVelocityX = 0;
+        mPredictedEdgeVelocityY = 0;
+    }
+
+    /**
+     * 子view惯性滚动的一帧
+     *
+     * 子view有没有消耗的距离，或者到了预测的时间已经不能再滚动（正好停在边界上），就是到达了边界，开始过度滚动。
+     * 预测和实际到达的帧吻合时，轨迹从预测的时刻、以预测的速度开始，这一帧就写入位移；
+     * 否则从这一帧开始，速度由最近几帧的滚动距离估算。
+     */
+    private void onFlingScroll(int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed) {
+        //子view想要滚动的距离，包括到达边界后没有消耗的部分
+        long time = AnimationUtils.currentAnimationTimeMillis() * NANOS_PER_MS;
+        mFlingVelocityEstimator.addMovement(time, dxConsumed + dxUnconsumed, dyConsumed + dyUnconsumed);
+
+        //位移的方向和滚动的方向相反，位移速度小于0时内容向正方向滚动
+        boolean edgeX = dxUnconsumed != 0 || (time >= mPredictedEdgeTimeX
+                && !mScrollView.getAdapter().canScrollHorizontally(mPredictedEdgeVelocityX < 0 ? 1 : -1));
+        boolean edgeY = dyUnconsumed != 0 || (time >= mPredictedEdgeTimeY
+                && !mScrollView.getAdapter().canScrollVertically(mPredictedEdgeVelocityY < 0 ? 1 : -1));
+        if (!edgeX && !edgeY) {
+            return;
+        }
+        //NestedScrollingChild fling到了边界，不能再消耗滚动距离，开启过度滚动并回弹
+        mTrackingFling = false;
+        mFlingVelocityEstimator.computeVelocity();
+
+        //只有到了边界的方向才过度滚动
+        float velocityX = 0;
+        float velocityY = 0;
+        long startTimeX = time;
+        long startTimeY = time;
+        if (edgeX && mAxis.compareNestedScrollAxes(ViewCompat.SCROLL_AXIS_HORIZONTAL)) {
+            if (Math.abs(time - mPredictedEdgeTimeX) <= EDGE_PREDICTION_TOLERANCE_NANOS) {
+                velocityX = mPredictedEdgeVelocityX;
+                startTimeX = Math.min(mPredictedEdgeTimeX, time);
             } else {
-                mockFling(target, -(int) velocityY);
+                velocityX = -mFlingVelocityEstimator.getVelocityX();
             }
         }
-        return false;
+        if (edgeY && mAxis.compareNestedScrollAxes(ViewCompat.SCROLL_AXIS_VERTICAL)) {
+            if (Math.abs(time - mPredictedEdgeTimeY) <= EDGE_PREDICTION_TOLERANCE_NANOS) {
+                velocityY = mPredictedEdgeVelocityY;
+                startTimeY = Math.min(mPredictedEdgeTimeY, time);
+            } else {
+                velocityY = -mFlingVelocityEstimator.getVelocityY();
+            }
+        }
+        clearEdgePrediction();
+        if (Math.abs(velocityX) < mMinimumFlingVelocity) velocityX = 0;
+        if (Math.abs(velocityY) < mMinimumFlingVelocity) velocityY = 0;
+
+        abortAnimation();
+        if (velocityX != 0 || velocityY != 0) {
+            overScroll(velocityX, velocityY, startTimeX, startTimeY);
+        }
     }
 
     @Override
@@ -286,20 +898,30 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
 
     @Override
     public void onStopNestedScroll(@NonNull View target, int type) {
+        traceFrameTime();
         int oldNestedScrollAxes = getNestedScrollAxes();
         mNestedScrollingParentHelper.onStopNestedScroll(target, type);
+        if (type == ViewCompat.TYPE_NON_TOUCH) {
+            mTrackingFling = false;
+            clearEdgePrediction();
+        }
+        if (mScrollView != null) {
+            mScrollView.getAdapter().onNestedScrollStopped(type);
+        }
 
         int nestedScrollAxes = getNestedScrollAxes();
         float translationY = target.getTranslationY();
-        log("onStopNestedScroll:" +
+        if (DEBUG) log("onStopNestedScroll:" +
                 "  type:" + type +
                 "  translationY:" + translationY +
                 "  nestedScrollAxes:" + nestedScrollAxes +
                 "  oldNestedScrollAxes:" + oldNestedScrollAxes
         );
+        if (mTrace != null) mTrace.record(OverScrollTrace.EVENT_STOP_NESTED_SCROLL, type, nestedScrollAxes);
 
-        if (nestedScrollAxes == ViewGroup.SCROLL_AXIS_NONE && mScrollView != null) {
+        if (nestedScrollAxes == ViewGroup.SCROLL_AXIS_NONE && mScrollView != null && !mAnimationDriver.isOverScrolling()) {
             //回弹，触摸滚动和惯性滚动都停止的情况下，target不在原位置，则触发回弹
+            //已经在过度滚动或者回弹时（比如onNestedPreFling已经带着速度开始回弹），不重新开始
             springBack();
         }
     }
@@ -312,229 +934,542 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
             onNestedScrollHorizontal(wrapper, dx, consumed);
         } else if (mAxis == Axes.VERTICAL && dy != 0) {
             onNestedScrollVertical(wrapper, dy, consumed);
+        } else if (mAxis == Axes.BOTH && (dx != 0 || dy != 0)) {
+            onNestedScrollBoth(wrapper, dx, dy, consumed);
         }
-    }
-
-    private void onNestedScrollHorizontal(ScrollViewWrapper scrollView, int dx, @NonNull int[] consumed) {
-        int translationX = scrollView.getTranslationX();
 
-        int newTranslationX = translationX;
+        //拖出去时进入DRAGGING，拖回原位置时回到IDLE
+        if (isTranslated(wrapper)) {
+            setOverScrollState(OVER_SCROLL_STATE_DRAGGING, edgesOf(wrapper.getTranslationX(), wrapper.getTranslationY()));
+        } else if (mOverScrollState == OVER_SCROLL_STATE_DRAGGING) {
+            setOverScrollState(OVER_SCROLL_STATE_IDLE, 0);
+        }
+    }
 
-        if (dx < 0) {
-            // dx < 0  手指向右滑动
-            if (!scrollView.canScrollRight()) {
-                //target的内容不能向右移动
+    private static boolean isTranslated(@NonNull ScrollViewWrapper wrapper) {
+        return wrapper.getTranslationX() != 0 || wrapper.getTranslationY() != 0;
+    }
 
-                //向右过度移动target
-                newTranslationX = translationX - dx;
-            } else if (translationX < 0) {
-                //translationX < 0  说明target的真实位置向左移动了，target被过度向左移动了
+    /**
+     * 位移或者速度的方向对应的边界，向下、向右为正
+     */
+    private static int edgesOf(float x, float y) {
+        int edges = 0;
+        if (x > 0) edges |= EDGE_LEFT;
+        else if (x < 0) edges |= EDGE_RIGHT;
+        if (y > 0) edges |= EDGE_TOP;
+        else if (y < 0) edges |= EDGE_BOTTOM;
+        return edges;
+    }
 
-                //向右恢复target的位置，恢复到0时NestedScrollingParent不再消耗，让NestedScrollingChild滑动
-                newTranslationX = Math.min(0, translationX - dx);
-            }
-        } else {
-            // dx > 0  手指向左滑动
-            if (!scrollView.canScrollLeft()) {
-                //target的内容不能向左移动
+    /**
+     * 当前的过度滚动状态，OVER_SCROLL_STATE_*
+     */
+    public int getOverScrollState() {
+        return mOverScrollState;
+    }
 
-                //向左恢复target的位置
-                newTranslationX = translationX - dx;
-            } else if (translationX > 0) {
-                //translationX > 0  说明target的真实位置向右移动了，target被过度向右移动了
+    /**
+     * 当前正在过度滚动的边界，EDGE_*的组合，IDLE时为0
+     */
+    public int getOverScrollEdges() {
+        return mOverScrollEdges;
+    }
 
-                //向左恢复target的位置，恢复到0时NestedScrollingParent不再消耗，让NestedScrollingChild滑动
-                newTranslationX = Math.max(0, translationX - dx);
-            }
+    public void addOnOverScrollStateChangedListener(@NonNull OnOverScrollStateChangedListener listener) {
+        mStateListeners.add(listener);
+    }
+
+    /**
+     * 可以在回调中调用，从下一次回调开始生效
+     */
+    public void removeOnOverScrollStateChangedListener(@NonNull OnOverScrollStateChangedListener listener) {
+        mStateListeners.remove(listener);
+    }
+
+    /**
+     * 状态或者边界变化时回调监听器
+     */
+    private void setOverScrollState(int state, int edges) {
+        if (mOverScrollState == state && mOverScrollEdges == edges) {
+            return;
+        }
+        if (DEBUG) log("setOverScrollState: " + mOverScrollState + " -> " + state + "  edges:" + edges);
+        mOverScrollState = state;
+        mOverScrollEdges = edges;
+        Object[] array = mStateListeners.getArray();
+        for (int i = 0; i < array.length; i++) {
+            ((OnOverScrollStateChangedListener) array[i]).onOverScrollStateChanged(state, edges);
         }
+    }
+
+    private void onNestedScrollHorizontal(ScrollViewWrapper scrollView, int dx, @NonNull int[] consumed) {
+        float translationX = scrollView.getTranslationX();
+        float newTranslationX = resolveTranslationX(scrollView, dx);
 
         if (translationX != newTranslationX) {
             scrollView.translateX(newTranslationX);
-            consumed[0] += (int) (translationX - newTranslationX);
+            //动画被打断时位移可能有小数，消耗的距离取整
+            consumed[0] += Math.round(translationX - newTranslationX);
         }
     }
 
     private void onNestedScrollVertical(ScrollViewWrapper scrollView, int dy, @NonNull int[] consumed) {
-        int translationY = scrollView.getTranslationY();
+        float translationY = scrollView.getTranslationY();
+        float newTranslationY = resolveTranslationY(scrollView, dy);
+
+        if (translationY != newTranslationY) {
+            scrollView.translateY(newTranslationY);
+            //动画被打断时位移可能有小数，消耗的距离取整
+            consumed[1] += Math.round(translationY - newTranslationY);
+        }
+    }
+
+    private void onNestedScrollBoth(ScrollViewWrapper scrollView, int dx, int dy, @NonNull int[] consumed) {
+        float translationX = scrollView.getTranslationX();
+        float translationY = scrollView.getTranslationY();
+        //两个方向各自判断，互不影响
+        float newTranslationX = dx != 0 ? resolveTranslationX(scrollView, dx) : translationX;
+        float newTranslationY = dy != 0 ? resolveTranslationY(scrollView, dy) : translationY;
+
+        if (translationX != newTranslationX || translationY != newTranslationY) {
+            //两个方向一起写入，只回调一次监听器
+            scrollView.translate(newTranslationX, newTranslationY);
+            consumed[0] += Math.round(translationX - newTranslationX);
+            consumed[1] += Math.round(translationY - newTranslationY);
+        }
+    }
 
-        int newTranslationY = translationY;
+    private static float resolveTranslationX(ScrollViewWrapper scrollView, int dx) {
+        // dx < 0  手指向右滑动，判断target的内容能否向右移动
+        // dx > 0  手指向左滑动，判断target的内容能否向左移动
+        boolean canScroll = dx < 0 ? scrollView.canScrollRight() : scrollView.canScrollLeft();
+        return OverScrollResolver.resolveTranslation(scrollView.getTranslationX(), dx, canScroll);
+    }
 
-        if (dy < 0) {
-            // dy < 0  手指向下滑动
-            if (!scrollView.canScrollDown()) {
-                //target的内容不能向下移动
+    private static float resolveTranslationY(ScrollViewWrapper scrollView, int dy) {
+        // dy < 0  手指向下滑动，判断target的内容能否向下移动
+        // dy > 0  手指向上滑动，判断target的内容能否向上移动
+        boolean canScroll = dy < 0 ? scrollView.canScrollDown() : scrollView.canScrollUp();
+        return OverScrollResolver.resolveTranslation(scrollView.getTranslationY(), dy, canScroll);
+    }
 
-                //向下过度移动target
-                newTranslationY = translationY - dy;
-            } else if (translationY < 0) {
-                //translationY < 0  说明target的真实位置向上移动了，target被过度向上移动了
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (mScrollView != null) {
+            mScrollView.getAdapter().onAttach();
+        }
+    }
 
-                //向下恢复target的位置，恢复到0时NestedScrollingParent不再消耗，让NestedScrollingChild滑动
-                newTranslationY = Math.min(0, translationY - dy);
-            }
-        } else {
-            // dy > 0  手指向上滑动
-            if (!scrollView.canScrollUp()) {
-                //target的内容不能向上移动
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        //帧回调由Choreographer持有，不移除的话detach之后还会继续执行，并且一直引用着整个view树
+        snapToRest();
+        //适配器注册的监听器可能被比view树存活更久的对象持有，比如RecyclerView.Adapter
+        if (mScrollView != null) {
+            mScrollView.getAdapter().onDetach();
+        }
+    }
 
-                //向上恢复target的位置
-                newTranslationY = translationY - dy;
-            } else if (translationY > 0) {
-                //translationY > 0  说明target的真实位置向下移动了，target被过度向下移动了
+    @Override
+    protected void onVisibilityChanged(@NonNull View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        updateAnimationVisibility();
+    }
 
-                //向上恢复target的位置，恢复到0时NestedScrollingParent不再消耗，让NestedScrollingChild滑动
-                newTranslationY = Math.max(0, translationY - dy);
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        updateAnimationVisibility();
+    }
+
+    /**
+     * 不可见时暂停过度滚动和回弹，内容view停在当前位置；重新可见时从当前位置回弹
+     *
+     * 不记录暂停时的动画进度，暂停期间帧时间还在走，恢复时重新开始回弹才不会跳变
+     */
+    private void updateAnimationVisibility() {
+        //构造过程中也可能回调，这时还没有attach
+        if (!ViewCompat.isAttachedToWindow(this)) {
+            return;
+        }
+        boolean visible = isShown() && getWindowVisibility() == View.VISIBLE;
+        if (!visible) {
+            if (isAnimationRunning()) {
+                if (DEBUG) log("pauseAnimation");
+                mAnimationPaused = true;
+                stopAnimation();
+                //内容view还没有回到原位置，重新可见时继续回弹，状态是SETTLING而不是IDLE
+                if (mScrollView != null && isTranslated(mScrollView)) {
+                    setOverScrollState(OVER_SCROLL_STATE_SETTLING, edgesOf(mScrollView.getTranslationX(), mScrollView.getTranslationY()));
+                } else {
+                    setOverScrollState(OVER_SCROLL_STATE_IDLE, 0);
+                }
+            }
+        } else if (mAnimationPaused) {
+            if (DEBUG) log("resumeAnimation");
+            mAnimationPaused = false;
+            //正在拖动时，松手后会回弹
+            if (mScrollView != null && getNestedScrollAxes() == ViewCompat.SCROLL_AXIS_NONE) {
+                springBack();
             }
         }
+    }
 
-        if (translationY != newTranslationY) {
-            scrollView.translateY(newTranslationY);
-            consumed[1] += (int) (translationY - newTranslationY);
+    /**
+     * 停止动画，移除所有提交的帧回调，内容view直接回到原位置
+     */
+    private void snapToRest() {
+        abortAnimation();
+        setOverScrollState(OVER_SCROLL_STATE_IDLE, 0);
+        mAnimationPaused = false;
+        if (mMetricsFrameScheduled) {
+            mMetricsFrameScheduled = false;
+            Choreographer.getInstance().removeFrameCallback(mMetricsFrameCallback);
+        }
+        if (mScrollView != null) {
+            mScrollView.translate(0, 0);
+            mScrollView.flushPendingDispatch();
+            mScrollView.releaseHardwareLayer();
         }
     }
 
+    /**
+     * 是否有惯性过度滚动、回弹等动画在运行
+     */
+    @VisibleForTesting
+    boolean isAnimationRunning() {
+        return mAnimationDriver.getState() != AnimationDriver.STATE_IDLE;
+    }
+
+    /**
+     * 动画驱动的状态，{@link AnimationDriver#STATE_IDLE}等
+     */
+    @VisibleForTesting
+    int getAnimationState() {
+        return mAnimationDriver.getState();
+    }
+
+    /**
+     * 是否有提交到Choreographer还没有执行的动画帧回调
+     */
+    @VisibleForTesting
+    boolean isAnimationFrameScheduled() {
+        return mAnimationDriver.isScheduled();
+    }
+
+    /**
+     * 是否有提交到Choreographer还没有执行的性能指标帧回调
+     */
+    @VisibleForTesting
+    boolean isMetricsFrameScheduled() {
+        return mMetricsFrameScheduled;
+    }
+
+    /**
+     * 当前滚动view是否有提交到Choreographer还没有执行的合并回调
+     */
+    @VisibleForTesting
+    boolean isDispatchScheduled() {
+        return mScrollView != null && mScrollView.isDispatchScheduled();
+    }
+
     public void abortAnimation(){
-        log("abortAnimation: ");
+        stopAnimation();
+        //手指还在拖动时不是动画，状态不变
+        if (mOverScrollState != OVER_SCROLL_STATE_DRAGGING) {
+            setOverScrollState(OVER_SCROLL_STATE_IDLE, 0);
+        }
+    }
+
+    /**
+     * 停止动画，不改变过度滚动状态
+     */
+    private void stopAnimation() {
+        if (DEBUG) log("abortAnimation: ");
+        if (mTrace != null) mTrace.record(OverScrollTrace.EVENT_ABORT_ANIMATION);
         if (!mScroller.isFinished()) {
-            //会中断springBack、mockFling
+            //会中断springBack
             mScroller.abortAnimation();
         }
-        if (mOverScrollRunnable != null) {
-            //会中断overScroll
-            mOverScrollRunnable = null;
-        }
-        mMockFlingRunnable = null;
+        //会中断overScroll、springBack，并移除已经提交的帧回调
+        mAnimationDriver.stop();
     }
 
-    private void mockFling(View target, int velocity) {
-        log("mockNestedScrollingChildFling: velocity:  " + velocity);
-        //模拟滚动view的fling事件，统一fling在Y轴上，我们只是要一个模拟的滚动速度，和坐标轴没关系。
-        mScroller.fling(0, 0, 0, velocity, 0, 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
-        mMockFlingRunnable = new MockFlingRunnable(target, velocity);
-        ViewCompat.postOnAnimation(target, mMockFlingRunnable);
+    /**
+     * 惯性滑动后回弹动画，在调用的这一帧就写入位移
+     *
+     * @param startTimeX 水平方向到达边界的时间，可以早于这一帧
+     * @param startTimeY 垂直方向到达边界的时间，可以早于这一帧
+     */
+    private void overScroll(float velocityX, float velocityY, long startTimeX, long startTimeY) {
+        if (DEBUG) log("overScroll: "
+                + "  velocityX:" + velocityX
+                + "  velocityY:" + velocityY
+                + "  translationX:" + mScrollView.getTranslationX()
+                + "  translationY:" + mScrollView.getTranslationY()
+        );
+        if (mTrace != null) mTrace.record(OverScrollTrace.EVENT_OVER_SCROLL, velocityX, velocityY);
+        setOverScrollState(OVER_SCROLL_STATE_FLING_OVERSCROLL, edgesOf(velocityX, velocityY));
+        mAnimationDriver.startOverScroll(velocityX, velocityY, startTimeX, startTimeY);
     }
 
-    private class MockFlingRunnable implements Runnable {
+    private boolean springBack(){
+        return springBack(0, 0);
+    }
 
-        private final View view;
+    /**
+     * 回弹
+     *
+     * @param velocityX 当前水平位移的速度，只在弹簧回弹时使用
+     * @param velocityY 当前垂直位移的速度，只在弹簧回弹时使用
+     * @return 是否开始回弹
+     */
+    private boolean springBack(float velocityX, float velocityY){
+        float translationX = mScrollView.getTranslationX();
+        float translationY = mScrollView.getTranslationY();
+        if (translationX == 0 && translationY == 0) {
+            return false;
+        }
+        if (mSpringBackMode == SPRING_BACK_MODE_SPRING) {
+            //没有位移的方向不带速度，否则会从0点弹出去
+            if (translationX == 0) velocityX = 0;
+            if (translationY == 0) velocityY = 0;
+            if (DEBUG) log("springBack: translationX: " + translationX + "  translationY:" + translationY
+                    + "  velocityX:" + velocityX + "  velocityY:" + velocityY);
+            if (mTrace != null) mTrace.record(OverScrollTrace.EVENT_SPRING_BACK, translationX, translationY, velocityX, velocityY);
+            setOverScrollState(OVER_SCROLL_STATE_SETTLING, edgesOf(translationX, translationY));
+            mAnimationDriver.startSpring(translationX, translationY, velocityX, velocityY);
+            return true;
+        }
+        //OverScroller只支持整数位移，不足半个像素的直接回到原位置
+        int startX = Math.round(translationX);
+        int startY = Math.round(translationY);
+        if (startX == 0 && startY == 0) {
+            mScrollView.translate(0, 0);
+            setOverScrollState(OVER_SCROLL_STATE_IDLE, 0);
+            return false;
+        }
+        if (mScroller.springBack(startX, startY, 0, 0, 0, 0)) {
+            if (DEBUG) log("springBack: translationX: " + translationX + "  translationY:" + translationY);
+            if (mTrace != null) mTrace.record(OverScrollTrace.EVENT_SPRING_BACK, translationX, translationY);
+            setOverScrollState(OVER_SCROLL_STATE_SETTLING, edgesOf(translationX, translationY));
+            mAnimationDriver.startSpringBack();
+            return true;
+        }
+        return false;
+    }
 
-        //速度正负纠正因子
-        private final int factor;
+    /**
+     * 动画驱动，每个OverScrollLayout只有一个实例，所有动画都由它按状态逐帧驱动：
+     *
+     * IDLE -> FLING_OVERSCROLL -> IDLE    惯性滚动到边界，轨迹包括滑出去和回到原位置，回来的一段不经过SPRING_BACK
+     * IDLE -> SPRING_BACK -> IDLE         松手后回弹
+     * FLING_OVERSCROLL、SPRING_BACK -> IDLE    按下、不可见、detach时{@link #stop()}
+     *
+     * 手势过程中不创建新对象，并且任何时候最多只有一个帧回调在排队。
+     */
+    @VisibleForTesting
+    final class AnimationDriver implements Choreographer.FrameCallback {
 
-        public MockFlingRunnable(View view, int velocity) {
-            this.view = view;
-            if (velocity == 0) {
-                factor = 1;
-            } else {
-                factor = velocity / Math.abs(velocity);
-            }
+        static final int STATE_IDLE = 0;
+        //惯性滑动到边界后，继续过度滚动并回到原位置
+        static final int STATE_FLING_OVERSCROLL = 1;
+        //回弹
+        static final int STATE_SPRING_BACK = 2;
+
+        private int mState = STATE_IDLE;
+
+        //是否已经提交了帧回调
+        private boolean mScheduled = false;
+
+        private Choreographer mChoreographer;
+
+        //FLING_OVERSCROLL，到达边界时求出滑出去再回来的整条轨迹，每帧按帧时间取值，两个方向在同一帧计算
+        private final OverScrollTrajectory mTrajectoryX = new OverScrollTrajectory();
+        private final OverScrollTrajectory mTrajectoryY = new OverScrollTrajectory();
+
+        //SPRING_BACK，弹簧回弹时使用，否则使用mScroller
+        private final SpringSimulation mSpringX = new SpringSimulation();
+        private final SpringSimulation mSpringY = new SpringSimulation();
+        private boolean mUseSpring = false;
+        //回弹开始的时间，用于统计回弹时长
+        private long mSpringBackStartTime;
+
+        int getState() {
+            return mState;
         }
 
-        @Override
-        public void run() {
-            if (mScroller.computeScrollOffset()) {
-                ViewCompat.postOnAnimation(view, this);
+        boolean isScheduled() {
+            return mScheduled;
+        }
 
-                //这个值没有正负，正负根据initialVelocityY修正
-                float currVelocity = getCurrVelocity();
-                log("MockFlingRunnable run: "
-                        + "  currVelocity:" + currVelocity
-                        + "  >= :" + (Math.abs(currVelocity) >= mMinimumFlingVelocity)
-                );
-            }
+        /**
+         * 是否正在惯性过度滚动或者回弹
+         */
+        boolean isOverScrolling() {
+            return mState == STATE_FLING_OVERSCROLL || mState == STATE_SPRING_BACK;
         }
 
-        public float getCurrVelocity(){
-            if (mScroller.isFinished()) {
-                return 0;
+        void startOverScroll(float velocityX, float velocityY, long startTimeX, long startTimeY) {
+            //没有速度的方向直接从当前位置回到原位置
+            mTrajectoryX.start(mScrollView.getTranslationX(), velocityX, startTimeX);
+            mTrajectoryY.start(mScrollView.getTranslationY(), velocityY, startTimeY);
+            mState = STATE_FLING_OVERSCROLL;
+            //在动画帧内调用时，currentAnimationTimeMillis就是这一帧的时间，和子view停在边界的同一帧写入位移
+            doOverScrollFrame(AnimationUtils.currentAnimationTimeMillis() * NANOS_PER_MS);
+            if (mState == STATE_IDLE) {
+                setOverScrollState(OVER_SCROLL_STATE_IDLE, 0);
             }
-            return factor * mScroller.getCurrVelocity();
         }
-    }
 
-    /**
-     * 惯性滑动后回弹动画
-     */
-    private void overScroll(@NonNull View target, int velocity) {
-        log("overScroll: "
-                + "  velocity:" + velocity
-                + "  translationX:" + target.getTranslationX()
-                + "  translationY:" + target.getTranslationY()
-        );
-        mOverScrollRunnable = new OverScrollRunnable(target, velocity);
-        ViewCompat.postOnAnimation(target, mOverScrollRunnable);
-    }
+        void startSpringBack() {
+            mUseSpring = false;
+            mSpringBackStartTime = System.nanoTime();
+            start(STATE_SPRING_BACK);
+        }
 
-    class OverScrollRunnable implements Runnable {
-        int mFrame = 0;
-        long mLastTime;
-        int mOffset = 0;
+        void startSpring(float translationX, float translationY, float velocityX, float velocityY) {
+            long startTime = AnimationUtils.currentAnimationTimeMillis() * NANOS_PER_MS;
+            mSpringX.start(translationX, velocityX, startTime);
+            mSpringY.start(translationY, velocityY, startTime);
+            mUseSpring = true;
+            mSpringBackStartTime = System.nanoTime();
+            start(STATE_SPRING_BACK);
+        }
 
-        float mVelocity;
+        void setSpring(float stiffness, float dampingRatio) {
+            mSpringX.setStiffness(stiffness);
+            mSpringX.setDampingRatio(dampingRatio);
+            mSpringY.setStiffness(stiffness);
+            mSpringY.setDampingRatio(dampingRatio);
+            mTrajectoryX.setSpring(stiffness, dampingRatio);
+            mTrajectoryY.setSpring(stiffness, dampingRatio);
+        }
 
-        View view;
+        void stop() {
+            mState = STATE_IDLE;
+            mTrajectoryX.abort();
+            mTrajectoryY.abort();
+            mSpringX.abort();
+            mSpringY.abort();
+            if (mScheduled) {
+                mScheduled = false;
+                mChoreographer.removeFrameCallback(this);
+            }
+        }
 
-        public OverScrollRunnable(View view, float mVelocity) {
-            this.mVelocity = mVelocity;
-            this.view = view;
-            mLastTime = AnimationUtils.currentAnimationTimeMillis();
+        private void start(int state) {
+            mState = state;
+            schedule();
         }
 
-        @Override
-        public void run() {
-            if (mOverScrollRunnable == this) {
-                mVelocity *= Math.pow(0.85f, ++mFrame * 2);//回弹滚动数度衰减
-                long now = AnimationUtils.currentAnimationTimeMillis();
-                float t = 1f * (now - mLastTime) / 1000;
-                float velocity = mVelocity * t;
-
-                log("OverScrollRunnable run: " + mVelocity + "  " + velocity);
-
-                // 还有速度时，就加剧过度滑动
-                if (Math.abs(velocity) >= 1) {
-                    mLastTime = now;
-                    mOffset += velocity;
-                    if (mAxis == Axes.HORIZONTAL) {
-                        mScrollView.translateX(mOffset);
-                    } else if (mAxis == Axes.VERTICAL) {
-                        mScrollView.translateY(mOffset);
-                    }
-                    ViewCompat.postOnAnimation(view, this);
-                } else {
-                    // 没有速度后，通过 reboundAnimator，回弹至初始位置
-                    mOverScrollRunnable = null;
-                    springBack();
+        private void schedule() {
+            if (!mScheduled) {
+                if (mChoreographer == null) {
+                    mChoreographer = Choreographer.getInstance();
                 }
+                mScheduled = true;
+                mChoreographer.postFrameCallback(this);
             }
         }
-    }
 
-    private boolean springBack(){
-        int translationX = mScrollView.getTranslationX();
-        int translationY = mScrollView.getTranslationY();
-        if ((translationX != 0 || translationY != 0) && mScroller.springBack(translationX, translationY, 0, 0, 0, 0)) {
-            log("springBack: translationX: " + translationX + "  translationY:" + translationY);
-            SpringBackRunnable runnable = new SpringBackRunnable(mScrollView);
-            ViewCompat.postOnAnimation(mScrollView.getContentView(), runnable);
-            return true;
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mScheduled = false;
+            if (mTrace != null) mTrace.setFrameTime(frameTimeNanos);
+            OverScrollMetrics metrics = mMetrics;
+            long startTime = metrics != null ? System.nanoTime() : 0;
+            switch (mState) {
+                case STATE_FLING_OVERSCROLL:
+                    doOverScrollFrame(frameTimeNanos);
+                    break;
+                case STATE_SPRING_BACK:
+                    if (mUseSpring) {
+                        doSpringFrame(frameTimeNanos);
+                    } else {
+                        doSpringBackFrame();
+                    }
+                    break;
+                default:
+                    break;
+            }
+            //动画帧中提交的帧回调要到下一帧才执行，这里直接分发合并的回调，保证在这一帧绘制之前
+            if (mScrollView != null) {
+                mScrollView.flushPendingDispatch();
+            }
+            //最后一次位移分发之后再通知动画结束
+            if (mState == STATE_IDLE) {
+                setOverScrollState(OVER_SCROLL_STATE_IDLE, 0);
+            }
+            if (metrics != null) {
+                metrics.record(OverScrollMetrics.ANIMATION_FRAME, System.nanoTime() - startTime);
+                metrics.endFrame();
+            }
         }
-        return false;
-    }
 
-    private class SpringBackRunnable implements Runnable {
+        private void finishSpringBack() {
+            mState = STATE_IDLE;
+            if (mMetrics != null) {
+                mMetrics.record(OverScrollMetrics.SPRING_BACK_DURATION, System.nanoTime() - mSpringBackStartTime);
+            }
+        }
 
-        private final ScrollViewWrapper scrollView;
+        private void doOverScrollFrame(long frameTimeNanos) {
+            //两个方向都要计算，不能短路
+            boolean runningX = mTrajectoryX.update(frameTimeNanos);
+            boolean runningY = mTrajectoryY.update(frameTimeNanos);
+            float currX = mTrajectoryX.getPosition();
+            float currY = mTrajectoryY.getPosition();
+
+            if (DEBUG) log("OverScroll frame: " + mTrajectoryX.getVelocity() + "  " + currX + "  " + mTrajectoryY.getVelocity() + "  " + currY);
+            if (mTrace != null) mTrace.record(OverScrollTrace.EVENT_OVER_SCROLL_FRAME, mTrajectoryX.getVelocity(), currX, mTrajectoryY.getVelocity(), currY);
+
+            //两个方向一起写入，只回调一次，结束时都回到0
+            mScrollView.translate(currX, currY);
+            if (runningX || runningY) {
+                schedule();
+                //两个方向都开始往回走后进入SETTLING
+                if (mOverScrollState == OVER_SCROLL_STATE_FLING_OVERSCROLL
+                        && frameTimeNanos >= Math.max(mTrajectoryX.getHandoffTimeNanos(), mTrajectoryY.getHandoffTimeNanos())) {
+                    setOverScrollState(OVER_SCROLL_STATE_SETTLING, edgesOf(currX, currY));
+                }
+            } else {
+                mState = STATE_IDLE;
+                if (mMetrics != null) {
+                    //从开始往回走算起，和回弹的统计一致
+                    long returnTime = Math.max(mTrajectoryX.getHandoffTimeNanos(), mTrajectoryY.getHandoffTimeNanos());
+                    mMetrics.record(OverScrollMetrics.SPRING_BACK_DURATION, frameTimeNanos - returnTime);
+                }
+            }
+        }
 
-        public SpringBackRunnable(ScrollViewWrapper wrapper) {
-            this.scrollView = wrapper;
+        private void doSpringFrame(long frameTimeNanos) {
+            //两个方向都要计算，不能短路
+            boolean runningX = mSpringX.update(frameTimeNanos);
+            boolean runningY = mSpringY.update(frameTimeNanos);
+            float currX = mSpringX.getPosition();
+            float currY = mSpringY.getPosition();
+            if (DEBUG) log("Spring frame:" + "  currX: " + currX + "  currY: " + currY);
+            if (mTrace != null) mTrace.record(OverScrollTrace.EVENT_SPRING_BACK_FRAME, currX, currY, mSpringX.getVelocity(), mSpringY.getVelocity());
+            mScrollView.translate(currX, currY);
+            if (runningX || runningY) {
+                schedule();
+            } else {
+                finishSpringBack();
+            }
         }
 
-        @Override
-        public void run() {
+        private void doSpringBackFrame() {
             if (mScroller.computeScrollOffset()) {
-                log("SpringBack run:" + "  currX: " + mScroller.getCurrX() + "  currY: " + mScroller.getCurrY());
-                scrollView.translate(mScroller.getCurrX(), mScroller.getCurrY());
-                ViewCompat.postOnAnimation(scrollView.getContentView(), this);
+                if (DEBUG) log("SpringBack frame:" + "  currX: " + mScroller.getCurrX() + "  currY: " + mScroller.getCurrY());
+                if (mTrace != null) mTrace.record(OverScrollTrace.EVENT_SPRING_BACK_FRAME, mScroller.getCurrX(), mScroller.getCurrY());
+                mScrollView.translate(mScroller.getCurrX(), mScroller.getCurrY());
+                schedule();
+            } else {
+                finishSpringBack();
             }
         }
     }
@@ -547,18 +1482,68 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
     public static class ScrollViewWrapper {
         private final View mContentView;
         private final View mScrollView;
+        //判断滚动view是否滚动到边界
+        private final ScrollTargetAdapter mAdapter;
 
         //滚动view虚拟的位移距离，因为有阻尼，实际没有消耗这么多
-        private int mVirtualTranslationX = 0;
-        private int mVirtualTranslationY = 0;
+        private float mVirtualTranslationX = 0;
+        private float mVirtualTranslationY = 0;
+
+        //最后一次写入View的实际位移
+        private float mActualTranslationX = 0;
+        private float mActualTranslationY = 0;
+
+        //实际位移变化超过这个值才写入
+        private float mTranslationEpsilon = DEFAULT_TRANSLATION_EPSILON;
 
         private int mMaxOverScrollDistance;
 
-        private List<OnOverScrollListener> listeners = null;
+        //阻尼计算，查表代替Math.pow、Math.log。单方向时两个方向的最大距离相同
+        private final DampingEngine mDampingEngineX = new DampingEngine();
+        private final DampingEngine mDampingEngineY = new DampingEngine();
+
+        //两个方向同时过度滚动，位移变化时只回调一次二维的监听
+        private boolean mBothAxes = false;
+
+        private ListenerArray<OnOverScrollListener> listeners = null;
+
+        private ListenerArray<OverScrollThreshold> mThresholds = null;
+
+        private OverScrollTrace mTrace = null;
+
+        private OverScrollMetrics mMetrics = null;
+
+        //合并到帧分发时，每个方向等待分发的最新位移
+        private boolean mCoalesceDispatch = false;
+        private boolean mPendingX = false;
+        private boolean mPendingY = false;
+        private boolean mPendingBoth = false;
+        private float mPendingTranslationX;
+        private float mPendingActualTranslationX;
+        private float mPendingTranslationY;
+        private float mPendingActualTranslationY;
+        private boolean mDispatchScheduled = false;
+        private Choreographer mChoreographer;
+        //过度滚动时是否把内容view提升为硬件层，mLayerPromoted表示当前是否由这里提升的
+        private boolean mUseHardwareLayer = false;
+        private boolean mLayerPromoted = false;
+
+        private final Choreographer.FrameCallback mDispatchCallback = new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                mDispatchScheduled = false;
+                flushPendingDispatch();
+            }
+        };
 
         public ScrollViewWrapper(@NonNull View contentView, @NonNull View scrollView) {
+            this(contentView, scrollView, ScrollTargetAdapters.create(scrollView));
+        }
+
+        public ScrollViewWrapper(@NonNull View contentView, @NonNull View scrollView, @NonNull ScrollTargetAdapter adapter) {
             this.mContentView = contentView;
             this.mScrollView = scrollView;
+            this.mAdapter = adapter;
             //不显示滚动到头的阴影
             mScrollView.setOverScrollMode(View.OVER_SCROLL_NEVER);
         }
@@ -571,81 +1556,403 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
             return mContentView;
         }
 
+        @NonNull
+        public ScrollTargetAdapter getAdapter() {
+            return mAdapter;
+        }
+
         public void setMaxOverScrollDistance(int maxOverScrollDistance) {
             this.mMaxOverScrollDistance = maxOverScrollDistance;
+            mDampingEngineX.setMaxDistance(maxOverScrollDistance);
+            mDampingEngineY.setMaxDistance(maxOverScrollDistance);
         }
 
-        public void setListeners(List<OnOverScrollListener> listeners) {
+        /**
+         * 两个方向分别设置最大过度滚动距离
+         */
+        public void setMaxOverScrollDistance(int horizontal, int vertical) {
+            this.mMaxOverScrollDistance = Math.max(horizontal, vertical);
+            mDampingEngineX.setMaxDistance(horizontal);
+            mDampingEngineY.setMaxDistance(vertical);
+        }
+
+        /**
+         * @param bothAxes true：两个方向同时过度滚动，每次位移变化回调一次{@link OnOverScrollListener#onOverScroll(float, float, float, float)}
+         */
+        public void setBothAxes(boolean bothAxes) {
+            if (mBothAxes != bothAxes) {
+                flushPendingDispatch();
+                this.mBothAxes = bothAxes;
+            }
+        }
+
+        /**
+         * @param listeners 监听器集合，直接持有，集合的变化会同步到这里
+         */
+        public void setListeners(@Nullable ListenerArray<OnOverScrollListener> listeners) {
             this.listeners = listeners;
         }
 
-        public int getTranslationY() {
+        /**
+         * @deprecated 会复制一份集合，之后list的变化不会同步到这里，使用{@link #setListeners(ListenerArray)}
+         */
+        @Deprecated
+        public void setListeners(@Nullable List<OnOverScrollListener> listeners) {
+            if (listeners == null) {
+                this.listeners = null;
+                return;
+            }
+            ListenerArray<OnOverScrollListener> array = new ListenerArray<>();
+            for (int i = 0; i < listeners.size(); i++) {
+                array.add(listeners.get(i));
+            }
+            this.listeners = array;
+        }
+
+        /**
+         * @param thresholds 触发距离集合，直接持有，集合的变化会同步到这里
+         */
+        public void setThresholds(@Nullable ListenerArray<OverScrollThreshold> thresholds) {
+            this.mThresholds = thresholds;
+        }
+
+        public void setTrace(@Nullable OverScrollTrace trace) {
+            this.mTrace = trace;
+        }
+
+        public void setMetrics(@Nullable OverScrollMetrics metrics) {
+            this.mMetrics = metrics;
+        }
+
+        public void setUseHardwareLayer(boolean useHardwareLayer) {
+            this.mUseHardwareLayer = useHardwareLayer;
+            if (!useHardwareLayer) {
+                releaseHardwareLayer();
+            } else {
+                updateHardwareLayer();
+            }
+        }
+
+        /**
+         * 开始过度滚动时提升为硬件层，回到原位置时恢复
+         */
+        private void updateHardwareLayer() {
+            boolean overScrolling = mVirtualTranslationX != 0 || mVirtualTranslationY != 0;
+            if (!overScrolling) {
+                releaseHardwareLayer();
+            } else if (!mLayerPromoted) {
+                if (mUseHardwareLayer && canPromoteHardwareLayer()) {
+                    mContentView.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+                    mLayerPromoted = true;
+                }
+            } else if (mContentView.getLayerType() != View.LAYER_TYPE_HARDWARE) {
+                //图层被外部修改了，不再由这里管理
+                mLayerPromoted = false;
+            } else if (isContentAnimating()) {
+                //内容在变化，硬件层每帧都要重新绘制，反而更慢
+                releaseHardwareLayer();
+            }
+        }
+
+        private boolean canPromoteHardwareLayer() {
+            //外部设置过图层的不处理；没有硬件加速时硬件层无效
+            return mContentView.getLayerType() == View.LAYER_TYPE_NONE
+                    && mContentView.isHardwareAccelerated()
+                    && mContentView.getWidth() > 0 && mContentView.getHeight() > 0
+                    && !isContentAnimating();
+        }
+
+        private boolean isContentAnimating() {
+            return mScrollView instanceof RecyclerView && ((RecyclerView) mScrollView).isAnimating();
+        }
+
+        /**
+         * 恢复由这里提升的硬件层
+         */
+        public void releaseHardwareLayer() {
+            if (mLayerPromoted) {
+                mLayerPromoted = false;
+                if (mContentView.getLayerType() == View.LAYER_TYPE_HARDWARE) {
+                    mContentView.setLayerType(View.LAYER_TYPE_NONE, null);
+                }
+            }
+        }
+
+        /**
+         * @param coalesce true：每个方向每帧最多回调一次最新的位移；false：每次位移变化立即回调
+         */
+        public void setCoalesceDispatch(boolean coalesce) {
+            if (mCoalesceDispatch && !coalesce) {
+                flushPendingDispatch();
+            }
+            this.mCoalesceDispatch = coalesce;
+        }
+
+        public void setTranslationEpsilon(float epsilon) {
+            this.mTranslationEpsilon = epsilon;
+        }
+
+        public float getTranslationY() {
             return mVirtualTranslationY;
         }
 
-        public int getTranslationX() {
+        public float getTranslationX() {
             return mVirtualTranslationX;
         }
 
-        public void translate(int translationX, int translationY) {
-            translateX(translationX);
-            translateY(translationY);
+        /**
+         * 手势接管动画：以内容view当前的实际位移为准，用阻尼的反向计算求出虚拟位移，接下来的拖动从这里继续
+         *
+         * 动画最后写入的虚拟位移和屏幕上的位置不一定对应：变化不足阈值时没有写入，
+         * 或者布局变化后最大过度滚动距离变了，阻尼的映射已经不同。直接接着虚拟位移拖动，第一个move事件就会跳变。
+         * 只改虚拟位移，不写入View、不回调监听器。每个方向单独判断，这个方向没有过度滚动时不处理，
+         * 内容view在这个方向的位移可能是别处设置的，比如竖直方向过度滚动时应用设置的translationX。
+         */
+        public void takeOverTranslation() {
+            if (mVirtualTranslationX != 0) {
+                mActualTranslationX = mContentView.getTranslationX();
+                mVirtualTranslationX = mDampingEngineX.undamp(mActualTranslationX);
+            }
+            if (mVirtualTranslationY != 0) {
+                mActualTranslationY = mContentView.getTranslationY();
+                mVirtualTranslationY = mDampingEngineY.undamp(mActualTranslationY);
+            }
+            if (DEBUG) log("takeOverTranslation: Virtual:" + mVirtualTranslationX + "-" + mVirtualTranslationY
+                    + "  Actual:" + mActualTranslationX + "-" + mActualTranslationY);
+        }
+
+        public void translate(float translationX, float translationY) {
+            if (!mBothAxes) {
+                translateX(translationX);
+                translateY(translationY);
+                return;
+            }
+            //两个方向都写入后只回调一次
+            boolean changedX = applyTranslationX(translationX);
+            boolean changedY = applyTranslationY(translationY);
+            if (changedX || changedY) {
+                onOverScroll2D();
+            }
+        }
+
+        public void translateX(float translationX) {
+            if (applyTranslationX(translationX)) {
+                if (mBothAxes) {
+                    onOverScroll2D();
+                } else {
+                    onOverScroll(Axes.HORIZONTAL, mVirtualTranslationX, mActualTranslationX);
+                }
+            }
+        }
+
+        public void translateY(float translationY) {
+            if (applyTranslationY(translationY)) {
+                if (mBothAxes) {
+                    onOverScroll2D();
+                } else {
+                    onOverScroll(Axes.VERTICAL, mVirtualTranslationY, mActualTranslationY);
+                }
+            }
         }
 
-        public void translateX(int translationX) {
-            if (mVirtualTranslationX != translationX) {
-                mVirtualTranslationX = translationX;
-                int actualTranslationX = computeDampedSlipDistance(translationX);
+        /**
+         * @return 是否写入了View的translation
+         */
+        private boolean applyTranslationX(float translationX) {
+            if (mVirtualTranslationX == translationX) {
+                return false;
+            }
+            mVirtualTranslationX = translationX;
+            float actualTranslationX = mDampingEngineX.damp(translationX);
+            boolean write = needWrite(mActualTranslationX, actualTranslationX);
+            if (write) {
+                mActualTranslationX = actualTranslationX;
                 mContentView.setTranslationX(actualTranslationX);
-                log("translateX: Virtual:" + translationX + "  Actual:" + actualTranslationX);
-                onOverScroll(Axes.HORIZONTAL, translationX, actualTranslationX);
+                if (mMetrics != null) mMetrics.onTranslationWrite();
+                if (DEBUG) log("translateX: Virtual:" + translationX + "  Actual:" + actualTranslationX);
+                if (mTrace != null) mTrace.record(OverScrollTrace.EVENT_TRANSLATE_X, translationX, actualTranslationX);
+                updateThresholds(true, actualTranslationX);
             }
+            updateHardwareLayer();
+            return write;
         }
 
-        public void translateY(int translationY) {
-            if (mVirtualTranslationY != translationY) {
-                mVirtualTranslationY = translationY;
-                int actualTranslationY = computeDampedSlipDistance(translationY);
+        private boolean applyTranslationY(float translationY) {
+            if (mVirtualTranslationY == translationY) {
+                return false;
+            }
+            mVirtualTranslationY = translationY;
+            float actualTranslationY = mDampingEngineY.damp(translationY);
+            boolean write = needWrite(mActualTranslationY, actualTranslationY);
+            if (write) {
+                mActualTranslationY = actualTranslationY;
                 mContentView.setTranslationY(actualTranslationY);
-                log("translateY: Virtual:" + translationY + "  Actual:" + actualTranslationY);
-                onOverScroll(Axes.VERTICAL, translationY, actualTranslationY);
+                if (mMetrics != null) mMetrics.onTranslationWrite();
+                if (DEBUG) log("translateY: Virtual:" + translationY + "  Actual:" + actualTranslationY);
+                if (mTrace != null) mTrace.record(OverScrollTrace.EVENT_TRANSLATE_Y, translationY, actualTranslationY);
+                updateThresholds(false, actualTranslationY);
+            }
+            updateHardwareLayer();
+            return write;
+        }
+
+        /**
+         * 用写入的实际位移判断这个方向的触发距离，越过时立即回调，不参与合并分发
+         */
+        private void updateThresholds(boolean horizontal, float actualTranslation) {
+            if (mThresholds == null || mThresholds.isEmpty()) {
+                return;
+            }
+            float maxDistance = horizontal ? mDampingEngineX.getMaxDistance() : mDampingEngineY.getMaxDistance();
+            Object[] array = mThresholds.getArray();
+            for (int i = 0; i < array.length; i++) {
+                OverScrollThreshold threshold = (OverScrollThreshold) array[i];
+                if (threshold.isHorizontal() == horizontal) {
+                    threshold.update(actualTranslation, maxDistance);
+                }
             }
         }
 
-        private void onOverScroll(Axes axes, int translation, int actualTranslation) {
-            if (listeners != null) {
-                for (OnOverScrollListener listener : listeners) {
-                    listener.onOverScroll(axes, translation, actualTranslation);
+        /**
+         * 实际位移变化超过阈值才写入，回到原位置时一定写入，不能留下不足阈值的偏移
+         */
+        private boolean needWrite(float oldActualTranslation, float actualTranslation) {
+            if (actualTranslation == 0) {
+                return oldActualTranslation != 0;
+            }
+            return Math.abs(actualTranslation - oldActualTranslation) > mTranslationEpsilon;
+        }
+
+        private void onOverScroll(Axes axes, float translation, float actualTranslation) {
+            if (listeners == null || listeners.isEmpty()) {
+                return;
+            }
+            if (mCoalesceDispatch) {
+                //只记录最新的位移，等到帧回调时再分发
+                if (axes == Axes.HORIZONTAL) {
+                    mPendingX = true;
+                    mPendingTranslationX = translation;
+                    mPendingActualTranslationX = actualTranslation;
+                } else {
+                    mPendingY = true;
+                    mPendingTranslationY = translation;
+                    mPendingActualTranslationY = actualTranslation;
                 }
+                scheduleDispatch();
+            } else {
+                dispatchOverScroll(axes, translation, actualTranslation);
+            }
+        }
+
+        private void onOverScroll2D() {
+            if (listeners == null || listeners.isEmpty()) {
+                return;
+            }
+            if (mCoalesceDispatch) {
+                //分发时取两个方向最新的位移
+                mPendingBoth = true;
+                scheduleDispatch();
+            } else {
+                dispatchOverScroll2D();
+            }
+        }
+
+        private void scheduleDispatch() {
+            if (!mDispatchScheduled) {
+                if (mChoreographer == null) {
+                    mChoreographer = Choreographer.getInstance();
+                }
+                mDispatchScheduled = true;
+                mChoreographer.postFrameCallback(mDispatchCallback);
+            }
+        }
+
+        /**
+         * 是否有提交到Choreographer还没有执行的合并回调
+         */
+        @VisibleForTesting
+        boolean isDispatchScheduled() {
+            return mDispatchScheduled;
+        }
+
+        /**
+         * 立即分发合并后等待中的回调
+         */
+        public void flushPendingDispatch() {
+            if (mDispatchScheduled) {
+                mDispatchScheduled = false;
+                mChoreographer.removeFrameCallback(mDispatchCallback);
+            }
+            if (mPendingX) {
+                mPendingX = false;
+                dispatchOverScroll(Axes.HORIZONTAL, mPendingTranslationX, mPendingActualTranslationX);
+            }
+            if (mPendingY) {
+                mPendingY = false;
+                dispatchOverScroll(Axes.VERTICAL, mPendingTranslationY, mPendingActualTranslationY);
+            }
+            if (mPendingBoth) {
+                mPendingBoth = false;
+                dispatchOverScroll2D();
+            }
+        }
+
+        private void dispatchOverScroll(Axes axes, float translation, float actualTranslation) {
+            if (listeners == null || listeners.isEmpty()) {
+                return;
+            }
+            long startTime = mMetrics != null ? System.nanoTime() : 0;
+            //遍历快照，回调中添加、删除监听器不影响这次分发
+            Object[] array = listeners.getArray();
+            for (int i = 0; i < array.length; i++) {
+                ((OnOverScrollListener) array[i]).onOverScroll(axes, translation, actualTranslation);
+            }
+            if (mMetrics != null) {
+                mMetrics.record(OverScrollMetrics.LISTENER_DISPATCH, System.nanoTime() - startTime);
+            }
+        }
+
+        private void dispatchOverScroll2D() {
+            if (listeners == null || listeners.isEmpty()) {
+                return;
+            }
+            long startTime = mMetrics != null ? System.nanoTime() : 0;
+            Object[] array = listeners.getArray();
+            for (int i = 0; i < array.length; i++) {
+                ((OnOverScrollListener) array[i]).onOverScroll(mVirtualTranslationX, mVirtualTranslationY,
+                        mActualTranslationX, mActualTranslationY);
+            }
+            if (mMetrics != null) {
+                mMetrics.record(OverScrollMetrics.LISTENER_DISPATCH, System.nanoTime() - startTime);
             }
         }
 
         public boolean canScrollUp(){
-            //view.canScrollVertically
+            //同view.canScrollVertically
             //传正值，view内容是否可以向坐标轴负方向移动（垂直向下为正，水平向右为正）
             //传负值，view内容是否可以向坐标轴正方向移动（垂直向下为正，水平向右为正）
-            return mScrollView.canScrollVertically(1);
+            return mAdapter.canScrollVertically(1);
         }
 
         public boolean canScrollDown(){
-            //view.canScrollVertically
+            //同view.canScrollVertically
             //传正值，view内容是否可以向坐标轴负方向移动（垂直向下为正，水平向右为正）
             //传负值，view内容是否可以向坐标轴正方向移动（垂直向下为正，水平向右为正）
-            return mScrollView.canScrollVertically(-1);
+            return mAdapter.canScrollVertically(-1);
         }
 
         public boolean canScrollLeft(){
-            //view.canScrollHorizontally
+            //同view.canScrollHorizontally
             //传正值，view内容是否可以向坐标轴负方向移动（垂直向下为正，水平向右为正）
             //传负值，view内容是否可以向坐标轴正方向移动（垂直向下为正，水平向右为正）
-            return mScrollView.canScrollHorizontally(1);
+            return mAdapter.canScrollHorizontally(1);
         }
 
         public boolean canScrollRight(){
-            //view.canScrollHorizontally
+            //同view.canScrollHorizontally
             //传正值，view内容是否可以向坐标轴负方向移动（垂直向下为正，水平向右为正）
             //传负值，view内容是否可以向坐标轴正方向移动（垂直向下为正，水平向右为正）
-            return mScrollView.canScrollHorizontally(-1);
+            return mAdapter.canScrollHorizontally(-1);
         }
 
         /**
@@ -653,39 +1960,72 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
          *
          * 公式 y = M(1-100^(-x/H))
          *
-         * M：过度滑动的最大距离
+         * M：这个方向过度滑动的最大距离
          * H：阻尼系数，H值越大，阻尼越大
          *
+         * 由{@link DampingEngine}查表计算，M变化时不重新建表
+         *
+         * @param axes 坐标轴方向，{@link Axes#HORIZONTAL}或{@link Axes#VERTICAL}
          * @param translation 原始应该滑动的距离
-         * @return int, 计算结果
+         * @return 计算结果
          */
-        public int computeDampedSlipDistance(int translation) {
-            //translationY > 0  说明target的真实位置向下移动了
+        public float computeDampedSlipDistance(@NonNull Axes axes, float translation) {
+            return getDampingEngine(axes).damp(translation);
+        }
 
-            if (translation == 0) {
-                return 0;
-            }
+        /**
+         * 反向计算阻尼滑动距离，由实际滑动的距离得到原始应该滑动的距离
+         *
+         * 公式 x = -H * log100(1 - y/M)
+         *
+         * @param axes 坐标轴方向，{@link Axes#HORIZONTAL}或{@link Axes#VERTICAL}
+         * @param distance 实际滑动的距离
+         * @return 计算结果
+         */
+        public float reverseComputeDampedSlipDistance(@NonNull Axes axes, float distance) {
+            return getDampingEngine(axes).undamp(distance);
+        }
 
-            int x = Math.abs(translation);
-            int M = mMaxOverScrollDistance;
-            double H = M * 8.75;
+        /**
+         * @deprecated 只计算竖直方向，使用{@link #computeDampedSlipDistance(Axes, float)}
+         */
+        @Deprecated
+        public int computeDampedSlipDistance(int translation) {
+            return (int) mDampingEngineY.damp(translation);
+        }
 
-            //公式 y = M(1-100^(-x/H))
-            double y = (M * (1 - Math.pow(100, -x / H)));
-            return (int) (y * (translation / x));
+        /**
+         * @deprecated 只计算竖直方向，使用{@link #computeDampedSlipDistance(Axes, float)}
+         */
+        @Deprecated
+        public float computeDampedSlipDistance(float translation) {
+            return mDampingEngineY.damp(translation);
         }
 
+        /**
+         * @deprecated 只计算竖直方向，使用{@link #reverseComputeDampedSlipDistance(Axes, float)}
+         */
+        @Deprecated
         public int reverseComputeDampedSlipDistance(int distance) {
-            if (distance == 0) {
-                return 0;
-            }
+            return (int) mDampingEngineY.undamp(distance);
+        }
 
-            int y = Math.abs(distance);
-            double M = mMaxOverScrollDistance;
-            double H = M * 8.75;
+        /**
+         * @deprecated 只计算竖直方向，使用{@link #reverseComputeDampedSlipDistance(Axes, float)}
+         */
+        @Deprecated
+        public float reverseComputeDampedSlipDistance(float distance) {
+            return mDampingEngineY.undamp(distance);
+        }
 
-            double x = (Math.log(1 - y / M) / Math.log(100) * (-H));
-            return (int) (x * (distance / y));
+        private DampingEngine getDampingEngine(Axes axes) {
+            if (axes == Axes.HORIZONTAL) {
+                return mDampingEngineX;
+            }
+            if (axes == Axes.VERTICAL) {
+                return mDampingEngineY;
+            }
+            throw new IllegalArgumentException("axes must be HORIZONTAL or VERTICAL: " + axes);
         }
     }
 
@@ -710,10 +2050,16 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
          */
         public static final Axes VERTICAL = new Axes(2, ViewCompat.SCROLL_AXIS_VERTICAL);
 
+        /**
+         * 水平和垂直方向同时过度滚动
+         */
+        public static final Axes BOTH = new Axes(3, ViewCompat.SCROLL_AXIS_HORIZONTAL | ViewCompat.SCROLL_AXIS_VERTICAL);
+
         public static final Axes[] values = new Axes[]{
                 NONE,
                 HORIZONTAL,
-                VERTICAL
+                VERTICAL,
+                BOTH
         };
 
         /**
@@ -744,6 +2090,19 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
         }
     }
 
+    /**
+     * 过度滚动状态监听器，可以等到IDLE再做耗时的工作，比如加载图片、重新布局
+     */
+    public interface OnOverScrollStateChangedListener {
+        /**
+         * 状态或者正在过度滚动的边界变化时回调
+         *
+         * @param state OVER_SCROLL_STATE_IDLE、OVER_SCROLL_STATE_DRAGGING、OVER_SCROLL_STATE_FLING_OVERSCROLL、OVER_SCROLL_STATE_SETTLING
+         * @param edges 正在过度滚动的边界，EDGE_TOP、EDGE_BOTTOM、EDGE_LEFT、EDGE_RIGHT的组合，IDLE时为0
+         */
+        void onOverScrollStateChanged(int state, int edges);
+    }
+
     /**
      * 过度滚动监听器
      */
@@ -755,5 +2114,22 @@ public class OverScrollLayout extends FrameLayout implements NestedScrollingPare
          * @param actualTranslation 过度滚动的距离经过阻尼后，实际滚动的距离
          */
         void onOverScroll(Axes axes, int translation, int actualTranslation);
+
+        /**
+         * 发生过度滚动时，位移带小数。默认取整后回调{@link #onOverScroll(Axes, int, int)}，
+         * 需要亚像素精度时重写这个方法
+         */
+        default void onOverScroll(Axes axes, float translation, float actualTranslation) {
+            onOverScroll(axes, (int) translation, (int) actualTranslation);
+        }
+
+        /**
+         * {@link Axes#BOTH}时，两个方向的位移一起回调，每次变化只回调一次。
+         * 默认依次回调两个方向的{@link #onOverScroll(Axes, float, float)}
+         */
+        default void onOverScroll(float translationX, float translationY, float actualTranslationX, float actualTranslationY) {
+            onOverScroll(Axes.HORIZONTAL, translationX, actualTranslationX);
+            onOverScroll(Axes.VERTICAL, translationY, actualTranslationY);
+        }
     }
 }
@@ -0,0 +1,174 @@
+package com.yang.overscrolllayout;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * 过度滚动的性能指标，只用基本类型的计数器和固定大小的直方图，记录时不分配对象
+ *
+ * 直方图按2的幂分桶：桶0记录值0，桶i（i &gt; 0）记录 [2^(i-1), 2^i) 的值。
+ * 时间类指标的单位是纳秒。只能在主线程记录，{@link #copyTo(OverScrollMetrics)}可以复用对象做快照。
+ */
+public final class OverScrollMetrics {
+
+    /**
+     * onNestedPreScroll的耗时
+     */
+    public static final int NESTED_PRE_SCROLL = 0;
+
+    /**
+     * onNestedScroll的耗时
+     */
+    public static final int NESTED_SCROLL = 1;
+
+    /**
+     * 每一帧动画回调的耗时
+     */
+    public static final int ANIMATION_FRAME = 2;
+
+    /**
+     * 每次分发OnOverScrollListener的耗时
+     */
+    public static final int LISTENER_DISPATCH = 3;
+
+    /**
+     * 每一帧写入View translation的次数，只统计有写入的帧
+     */
+    public static final int TRANSLATION_WRITES_PER_FRAME = 4;
+
+    /**
+     * 回弹从开始到结束的时长，被打断的回弹不统计
+     */
+    public static final int SPRING_BACK_DURATION = 5;
+
+    /**
+     * 指标个数
+     */
+    public static final int METRIC_COUNT = 6;
+
+    /**
+     * 每个直方图的桶数，最后一个桶的上界是2^40
+     */
+    public static final int BUCKET_COUNT = 41;
+
+    private final long[] mCounts = new long[METRIC_COUNT];
+    private final long[] mSums = new long[METRIC_COUNT];
+    private final long[] mMaxes = new long[METRIC_COUNT];
+    private final long[] mBuckets = new long[METRIC_COUNT * BUCKET_COUNT];
+
+    //当前帧写入translation的次数
+    private int mFrameWrites = 0;
+
+    public void record(int metric, long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        mCounts[metric]++;
+        mSums[metric] += value;
+        if (value > mMaxes[metric]) {
+            mMaxes[metric] = value;
+        }
+        mBuckets[metric * BUCKET_COUNT + bucketOf(value)]++;
+    }
+
+    /**
+     * 记录一次View translation的写入
+     */
+    public void onTranslationWrite() {
+        mFrameWrites++;
+    }
+
+    /**
+     * 当前帧是否有还没统计的写入
+     */
+    public boolean hasFrameWrites() {
+        return mFrameWrites > 0;
+    }
+
+    /**
+     * 一帧结束，统计这一帧写入translation的次数
+     */
+    public void endFrame() {
+        if (mFrameWrites > 0) {
+            record(TRANSLATION_WRITES_PER_FRAME, mFrameWrites);
+            mFrameWrites = 0;
+        }
+    }
+
+    public long getCount(int metric) {
+        return mCounts[metric];
+    }
+
+    public long getSum(int metric) {
+        return mSums[metric];
+    }
+
+    public long getMax(int metric) {
+        return mMaxes[metric];
+    }
+
+    public long getMean(int metric) {
+        long count = mCounts[metric];
+        return count == 0 ? 0 : mSums[metric] / count;
+    }
+
+    public long getBucketCount(int metric, int bucket) {
+        return mBuckets[metric * BUCKET_COUNT + bucket];
+    }
+
+    /**
+     * 近似的百分位数，返回所在桶的上界
+     *
+     * @param percentile 0~1
+     */
+    public long getPercentile(int metric, float percentile) {
+        long count = mCounts[metric];
+        if (count == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(count * percentile);
+        long seen = 0;
+        int offset = metric * BUCKET_COUNT;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += mBuckets[offset + i];
+            if (seen >= target) {
+                return Math.min(getBucketUpperBound(i), mMaxes[metric]);
+            }
+        }
+        return mMaxes[metric];
+    }
+
+    /**
+     * 桶的上界（不包含）
+     */
+    public static long getBucketUpperBound(int bucket) {
+        return 1L << bucket;
+    }
+
+    static int bucketOf(long value) {
+        int bucket = 64 - Long.numberOfLeadingZeros(value);
+        return bucket < BUCKET_COUNT ? bucket : BUCKET_COUNT - 1;
+    }
+
+    public void reset() {
+        for (int i = 0; i < METRIC_COUNT; i++) {
+            mCounts[i] = 0;
+            mSums[i] = 0;
+            mMaxes[i] = 0;
+        }
+        Arrays.fill(mBuckets, 0);
+        mFrameWrites = 0;
+    }
+
+    /**
+     * 把当前数据复制到target，用于快照，target可以复用
+     */
+    public void copyTo(@NonNull OverScrollMetrics target) {
+        System.arraycopy(mCounts, 0, target.mCounts, 0, METRIC_COUNT);
+        System.arraycopy(mSums, 0, target.mSums, 0, METRIC_COUNT);
+        System.arraycopy(mMaxes, 0, target.mMaxes, 0, METRIC_COUNT);
+        System.arraycopy(mBuckets, 0, target.mBuckets, 0, mBuckets.length);
+        target.mFrameWrites = mFrameWrites;
+    }
+}
@@ -0,0 +1,51 @@
+package com.yang.overscrolllayout;
+
+/**
+ * 嵌套滚动时，计算NestedScrollingParent要把target的虚拟位移改成多少
+ *
+ * 水平、垂直方向的逻辑相同，坐标轴都是向下、向右为正。
+ * 不依赖Android，方便在JVM上测试和做基准测试。
+ */
+final class OverScrollResolver {
+
+    private OverScrollResolver() {
+    }
+
+    /**
+     * @param translation 当前的虚拟位移，动画被打断时可能带小数
+     * @param delta 嵌套滚动的距离dx或dy，delta &lt; 0 手指向下（右）滑动，delta &gt; 0 手指向上（左）滑动
+     * @param canScroll target的内容能否向手指滑动的方向移动。
+     *                  delta &lt; 0 时为canScrollDown（canScrollRight），delta &gt; 0 时为canScrollUp（canScrollLeft）
+     * @return 新的虚拟位移，和translation相等时说明不消耗滚动距离
+     */
+    static float resolveTranslation(float translation, int delta, boolean canScroll) {
+        if (delta < 0) {
+            // 手指向下（右）滑动
+            if (!canScroll) {
+                //target的内容不能向下（右）移动
+
+                //向下（右）过度移动target
+                return translation - delta;
+            } else if (translation < 0) {
+                //translation < 0  说明target的真实位置向上（左）移动了，target被过度向上（左）移动了
+
+                //向下（右）恢复target的位置，恢复到0时NestedScrollingParent不再消耗，让NestedScrollingChild滑动
+                return Math.min(0, translation - delta);
+            }
+        } else {
+            // 手指向上（左）滑动
+            if (!canScroll) {
+                //target的内容不能向上（左）移动
+
+                //向上（左）过度移动target
+                return translation - delta;
+            } else if (translation > 0) {
+                //translation > 0  说明target的真实位置向下（右）移动了，target被过度向下（右）移动了
+
+                //向上（左）恢复target的位置，恢复到0时NestedScrollingParent不再消耗，让NestedScrollingChild滑动
+                return Math.max(0, translation - delta);
+            }
+        }
+        return translation;
+    }
+}
@@ -0,0 +1,157 @@
+package com.yang.overscrolllayout;
+
+/**
+ * 过度滚动的触发距离，比如下拉刷新、上拉加载、下拉关闭
+ *
+ * 某个边界的实际位移超过触发距离时回调一次，回到触发距离减去回差以内时再回调一次，
+ * 在触发距离附近来回抖动时不会反复回调。由OverScrollLayout在写入位移时判断，
+ * 只关心是否越过触发距离的使用方不用再注册{@link OverScrollLayout.OnOverScrollListener}处理每一次位移变化。
+ *
+ * 触发距离可以是像素，也可以是最大过度滚动距离的比例，比例每次按当前的最大距离换算，布局变化后不需要重新设置。
+ * 判断过程不分配对象。只能在主线程使用。
+ */
+public final class OverScrollThreshold {
+
+    /**
+     * 同{@link OverScrollLayout#EDGE_TOP}
+     */
+    public static final int EDGE_TOP = OverScrollLayout.EDGE_TOP;
+
+    /**
+     * 同{@link OverScrollLayout#EDGE_BOTTOM}
+     */
+    public static final int EDGE_BOTTOM = OverScrollLayout.EDGE_BOTTOM;
+
+    /**
+     * 同{@link OverScrollLayout#EDGE_LEFT}
+     */
+    public static final int EDGE_LEFT = OverScrollLayout.EDGE_LEFT;
+
+    /**
+     * 同{@link OverScrollLayout#EDGE_RIGHT}
+     */
+    public static final int EDGE_RIGHT = OverScrollLayout.EDGE_RIGHT;
+
+    /**
+     * 越过触发距离的回调
+     */
+    public interface Callback {
+        /**
+         * @param threshold 越过的触发距离
+         * @param reached true：实际位移超过了触发距离；false：回到了触发距离减去回差以内
+         */
+        void onThresholdCrossed(OverScrollThreshold threshold, boolean reached);
+    }
+
+    private final int mEdge;
+    private final float mDistance;
+    private final float mHysteresis;
+    //mDistance、mHysteresis是否是最大过度滚动距离的比例
+    private final boolean mFraction;
+    private final Callback mCallback;
+
+    private boolean mReached = false;
+
+    private OverScrollThreshold(int edge, float distance, float hysteresis, boolean fraction, Callback callback) {
+        if (edge != EDGE_TOP && edge != EDGE_BOTTOM && edge != EDGE_LEFT && edge != EDGE_RIGHT) {
+            throw new IllegalArgumentException("unknown edge: " + edge);
+        }
+        if (!(distance > 0)) {
+            throw new IllegalArgumentException("distance must be > 0: " + distance);
+        }
+        if (!(hysteresis >= 0 && hysteresis <= distance)) {
+            throw new IllegalArgumentException("hysteresis must be in [0, distance]: " + hysteresis);
+        }
+        if (callback == null) {
+            throw new IllegalArgumentException("callback == null");
+        }
+        mEdge = edge;
+        mDistance = distance;
+        mHysteresis = hysteresis;
+        mFraction = fraction;
+        mCallback = callback;
+    }
+
+    /**
+     * @param edge {@link #EDGE_TOP}、{@link #EDGE_BOTTOM}、{@link #EDGE_LEFT}、{@link #EDGE_RIGHT}
+     * @param distance 触发距离，实际位移，单位px
+     * @param hysteresis 回差，单位px，实际位移回到distance - hysteresis以内才算离开
+     */
+    public static OverScrollThreshold ofDistance(int edge, float distance, float hysteresis, Callback callback) {
+        return new OverScrollThreshold(edge, distance, hysteresis, false, callback);
+    }
+
+    /**
+     * @param edge {@link #EDGE_TOP}、{@link #EDGE_BOTTOM}、{@link #EDGE_LEFT}、{@link #EDGE_RIGHT}
+     * @param fraction 触发距离占最大过度滚动距离的比例，(0, 1]
+     * @param hysteresisFraction 回差占最大过度滚动距离的比例
+     */
+    public static OverScrollThreshold ofFraction(int edge, float fraction, float hysteresisFraction, Callback callback) {
+        if (!(fraction <= 1)) {
+            throw new IllegalArgumentException("fraction must be in (0, 1]: " + fraction);
+        }
+        return new OverScrollThreshold(edge, fraction, hysteresisFraction, true, callback);
+    }
+
+    public int getEdge() {
+        return mEdge;
+    }
+
+    /**
+     * 是否超过了触发距离，还没有回到回差以内
+     */
+    public boolean isReached() {
+        return mReached;
+    }
+
+    /**
+     * 是否是水平方向的边界
+     */
+    public boolean isHorizontal() {
+        return mEdge == EDGE_LEFT || mEdge == EDGE_RIGHT;
+    }
+
+    /**
+     * 换算成像素的触发距离
+     *
+     * @param maxDistance 这个方向的最大过度滚动距离
+     */
+    public float getDistance(float maxDistance) {
+        return mFraction ? mDistance * maxDistance : mDistance;
+    }
+
+    /**
+     * 用这个方向新的实际位移判断是否越过了触发距离，越过时回调
+     *
+     * @param actualTranslation 实际位移，向下、向右为正
+     * @param maxDistance 这个方向的最大过度滚动距离
+     * @return 是否越过了触发距离
+     */
+    public boolean update(float actualTranslation, float maxDistance) {
+        //只看这个边界方向的位移，另一个方向的过度滚动算作0
+        float distance;
+        if (mEdge == EDGE_TOP || mEdge == EDGE_LEFT) {
+            distance = actualTranslation > 0 ? actualTranslation : 0;
+        } else {
+            distance = actualTranslation < 0 ? -actualTranslation : 0;
+        }
+        float threshold = getDistance(maxDistance);
+        if (!mReached) {
+            //最大距离为0时不可能过度滚动，不触发
+            if (threshold > 0 && distance >= threshold) {
+                mReached = true;
+                mCallback.onThresholdCrossed(this, true);
+                return true;
+            }
+        } else {
+            float release = threshold - (mFraction ? mHysteresis * maxDistance : mHysteresis);
+            //回到原位置时一定离开
+            if (distance < release || distance == 0) {
+                mReached = false;
+                mCallback.onThresholdCrossed(this, false);
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,160 @@
+package com.yang.overscrolllayout;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 过度滚动的事件追踪，环形缓冲区
+ *
+ * 事件记录在预先分配好的基本类型数组中，记录时不分配对象、不拼接字符串，
+ * 只有在{@link #dump(StringBuilder)}导出时才格式化，适合线上采集问题现场。
+ * 事件的时间是{@link #setFrameTime(long)}设置的帧时间，记录时不读时钟，同一帧的事件时间相同。
+ * 只能在主线程使用。
+ */
+public final class OverScrollTrace {
+
+    public static final int EVENT_START_NESTED_SCROLL = 1;
+    public static final int EVENT_NESTED_SCROLL_ACCEPTED = 2;
+    public static final int EVENT_NESTED_PRE_SCROLL = 3;
+    public static final int EVENT_NESTED_SCROLL = 4;
+    public static final int EVENT_NESTED_PRE_FLING = 5;
+    public static final int EVENT_NESTED_FLING = 6;
+    public static final int EVENT_STOP_NESTED_SCROLL = 7;
+    public static final int EVENT_TRANSLATE_X = 8;
+    public static final int EVENT_TRANSLATE_Y = 9;
+    /**
+     * @deprecated 不再模拟子view的fling，不会再记录这两个事件
+     */
+    @Deprecated
+    public static final int EVENT_MOCK_FLING = 10;
+    @Deprecated
+    public static final int EVENT_MOCK_FLING_FRAME = 11;
+    public static final int EVENT_OVER_SCROLL = 12;
+    public static final int EVENT_OVER_SCROLL_FRAME = 13;
+    public static final int EVENT_SPRING_BACK = 14;
+    public static final int EVENT_SPRING_BACK_FRAME = 15;
+    public static final int EVENT_ABORT_ANIMATION = 16;
+
+    private static final String[] EVENT_NAMES = {
+            "",
+            "startNestedScroll",
+            "nestedScrollAccepted",
+            "nestedPreScroll",
+            "nestedScroll",
+            "nestedPreFling",
+            "nestedFling",
+            "stopNestedScroll",
+            "translateX",
+            "translateY",
+            "mockFling",
+            "mockFlingFrame",
+            "overScroll",
+            "overScrollFrame",
+            "springBack",
+            "springBackFrame",
+            "abortAnimation",
+    };
+
+    //每个事件最多记录的参数个数
+    private static final int ARGS = 4;
+
+    private final int mCapacity;
+    private final long[] mTimes;
+    private final int[] mEvents;
+    private final float[] mArgs;
+
+    //下一个写入的位置
+    private int mHead = 0;
+    //已经记录的事件总数，超过容量后旧事件被覆盖
+    private long mCount = 0;
+    //之后记录的事件的时间
+    private long mFrameTimeNanos = 0;
+
+    public OverScrollTrace(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+        mCapacity = capacity;
+        mTimes = new long[capacity];
+        mEvents = new int[capacity];
+        mArgs = new float[capacity * ARGS];
+    }
+
+    /**
+     * 设置之后记录的事件的时间，OverScrollLayout在每一帧和每个嵌套滚动回调开始时设置
+     *
+     * @param frameTimeNanos 帧时间，和{@link android.view.Choreographer.FrameCallback#doFrame(long)}的时间相同的时钟
+     */
+    public void setFrameTime(long frameTimeNanos) {
+        mFrameTimeNanos = frameTimeNanos;
+    }
+
+    public void record(int event) {
+        record(event, 0, 0, 0, 0);
+    }
+
+    public void record(int event, float a) {
+        record(event, a, 0, 0, 0);
+    }
+
+    public void record(int event, float a, float b) {
+        record(event, a, b, 0, 0);
+    }
+
+    public void record(int event, float a, float b, float c, float d) {
+        int index = mHead;
+        mTimes[index] = mFrameTimeNanos;
+        mEvents[index] = event;
+        int offset = index * ARGS;
+        mArgs[offset] = a;
+        mArgs[offset + 1] = b;
+        mArgs[offset + 2] = c;
+        mArgs[offset + 3] = d;
+        mHead = index + 1 == mCapacity ? 0 : index + 1;
+        mCount++;
+    }
+
+    public int getCapacity() {
+        return mCapacity;
+    }
+
+    /**
+     * 当前缓冲区中的事件个数
+     */
+    public int size() {
+        return (int) Math.min(mCount, mCapacity);
+    }
+
+    public void clear() {
+        mHead = 0;
+        mCount = 0;
+    }
+
+    /**
+     * 按时间顺序导出缓冲区中的事件，时间是相对第一条事件的毫秒数
+     */
+    public void dump(@NonNull StringBuilder sb) {
+        int size = size();
+        int start = (mHead - size + mCapacity) % mCapacity;
+        long firstTime = size > 0 ? mTimes[start] : 0;
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % mCapacity;
+            int event = mEvents[index];
+            int offset = index * ARGS;
+            sb.append((mTimes[index] - firstTime) / 1000000f).append("ms ")
+                    .append(event > 0 && event < EVENT_NAMES.length ? EVENT_NAMES[event] : String.valueOf(event))
+                    .append(' ').append(mArgs[offset])
+                    .append(' ').append(mArgs[offset + 1])
+                    .append(' ').append(mArgs[offset + 2])
+                    .append(' ').append(mArgs[offset + 3])
+                    .append('\n');
+        }
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        dump(sb);
+        return sb.toString();
+    }
+}
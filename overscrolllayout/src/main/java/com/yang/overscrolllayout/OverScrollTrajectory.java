@@ -0,0 +1,122 @@
+package com.yang.overscrolllayout;
+
+/**
+ * 惯性滑动到边界后完整的过度滚动轨迹：先按{@link OverScrollDecay}指数衰减滑出去，再由{@link SpringSimulation}拉回0点
+ *
+ * 开始时就求出衰减段结束的时间、位置和速度，用它们确定弹簧段的系数，整条轨迹由初始位置和初速度完全确定。
+ * 之后每一帧只是按帧时间在对应的一段上求值，O(1)，不逐帧积分。
+ * 两段在交接点位置和速度都相等，是一条连续的曲线，不需要在衰减结束后的下一帧再启动回弹。
+ * 初速度为0或者指向0点时没有衰减段，直接由弹簧带着初速度回到0点。
+ */
+public final class OverScrollTrajectory {
+
+    private final OverScrollDecay mDecay = new OverScrollDecay();
+    private final SpringSimulation mSpring = new SpringSimulation();
+
+    private float mStartPosition;
+    //衰减段结束、弹簧段开始的时间
+    private long mHandoffTimeNanos;
+
+    private float mPosition;
+    private float mVelocity;
+    private boolean mFinished = true;
+
+    public void setTimeConstant(float timeConstant) {
+        mDecay.setTimeConstant(timeConstant);
+    }
+
+    public float getTimeConstant() {
+        return mDecay.getTimeConstant();
+    }
+
+    public void setSpring(float stiffness, float dampingRatio) {
+        mSpring.setStiffness(stiffness);
+        mSpring.setDampingRatio(dampingRatio);
+    }
+
+    /**
+     * @param startPosition 初始位置，单位px
+     * @param velocity 初速度，单位px/s
+     * @param startTimeNanos 开始时间，和Choreographer帧时间同一时间基准
+     */
+    public void start(float startPosition, float velocity, long startTimeNanos) {
+        mStartPosition = startPosition;
+        mPosition = startPosition;
+        mVelocity = velocity;
+
+        //速度方向离开0点时才有衰减段
+        boolean outward = startPosition == 0 ? velocity != 0 : (startPosition > 0) == (velocity > 0);
+        long decayDuration = 0;
+        if (outward) {
+            mDecay.start(velocity, startTimeNanos);
+            //衰减距离不足停止距离时为0，没有衰减段
+            decayDuration = mDecay.getDurationNanos();
+        }
+        mHandoffTimeNanos = startTimeNanos + decayDuration;
+
+        if (decayDuration > 0) {
+            mSpring.start(startPosition + mDecay.getOffsetAt(mHandoffTimeNanos),
+                    mDecay.getVelocityAt(mHandoffTimeNanos), mHandoffTimeNanos);
+            mFinished = false;
+        } else {
+            mDecay.abort();
+            mSpring.start(startPosition, velocity, startTimeNanos);
+            mFinished = mSpring.isFinished();
+        }
+        if (mFinished) {
+            mPosition = 0;
+            mVelocity = 0;
+        }
+    }
+
+    /**
+     * 计算frameTimeNanos时的位置和速度
+     *
+     * @return 是否还在运动，静止时位置和速度都归0
+     */
+    public boolean update(long frameTimeNanos) {
+        if (mFinished) {
+            return false;
+        }
+        if (frameTimeNanos < mHandoffTimeNanos) {
+            mPosition = mStartPosition + mDecay.getOffsetAt(frameTimeNanos);
+            mVelocity = mDecay.getVelocityAt(frameTimeNanos);
+            return true;
+        }
+        mFinished = !mSpring.update(frameTimeNanos);
+        mPosition = mSpring.getPosition();
+        mVelocity = mSpring.getVelocity();
+        return !mFinished;
+    }
+
+    public void abort() {
+        mDecay.abort();
+        mSpring.abort();
+        mFinished = true;
+    }
+
+    public boolean isFinished() {
+        return mFinished;
+    }
+
+    /**
+     * 衰减段结束、开始回到0点的时间，没有衰减段时就是开始时间
+     */
+    public long getHandoffTimeNanos() {
+        return mHandoffTimeNanos;
+    }
+
+    /**
+     * 当前位置，单位px
+     */
+    public float getPosition() {
+        return mPosition;
+    }
+
+    /**
+     * 当前速度，单位px/s
+     */
+    public float getVelocity() {
+        return mVelocity;
+    }
+}
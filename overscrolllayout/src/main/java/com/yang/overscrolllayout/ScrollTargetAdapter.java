@@ -0,0 +1,107 @@
+package com.yang.overscrolllayout;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 滚动view的适配器，每个滚动view一个实例
+ *
+ * OverScrollLayout通过它判断滚动view是否滚动到了边界，不同类型的滚动view可以用各自最快的方式判断。
+ * 内置了RecyclerView、NestedScrollView、ScrollingView、NestedScrollingChild的适配器，见{@link ScrollTargetAdapters}，
+ * 其他类型的滚动view可以通过{@link OverScrollLayout#addScrollTargetAdapterFactory(Factory)}注册。
+ */
+public interface ScrollTargetAdapter {
+
+    /**
+     * 是否支持该方向的嵌套滚动
+     *
+     * @param nestedScrollAxes ViewCompat.SCROLL_AXIS_HORIZONTAL、ViewCompat.SCROLL_AXIS_VERTICAL
+     */
+    boolean supportsAxes(int nestedScrollAxes);
+
+    /**
+     * 同View.canScrollVertically
+     *
+     * 传正值，view内容是否可以向坐标轴负方向移动（垂直向下为正，水平向右为正）
+     * 传负值，view内容是否可以向坐标轴正方向移动（垂直向下为正，水平向右为正）
+     */
+    boolean canScrollVertically(int direction);
+
+    /**
+     * 同View.canScrollHorizontally，参数含义同{@link #canScrollVertically(int)}
+     */
+    boolean canScrollHorizontally(int direction);
+
+    /**
+     * 子view有没消费完的滚动距离，说明这个方向滚动到了边界。在OverScrollLayout判断能否滚动之前回调
+     *
+     * 子view先分发嵌套滚动，再回调自己的滚动监听，缓存了能否滚动的适配器要在这里让这个方向的缓存失效
+     *
+     * @param dxUnconsumed 水平方向没消费的距离，参数含义同onNestedScroll
+     * @param dyUnconsumed 垂直方向没消费的距离
+     */
+    default void onUnconsumedScroll(int dxUnconsumed, int dyUnconsumed) {
+    }
+
+    /**
+     * 向该方向还能滚动的距离，单位px，参数含义同{@link #canScrollVertically(int)}
+     *
+     * 用于在onNestedFling时预测惯性滚动到达边界的时间，不知道时返回-1，到达边界后再估算速度
+     */
+    default int getVerticalScrollRemaining(int direction) {
+        return -1;
+    }
+
+    /**
+     * 同{@link #getVerticalScrollRemaining(int)}，水平方向
+     */
+    default int getHorizontalScrollRemaining(int direction) {
+        return -1;
+    }
+
+    /**
+     * 成为OverScrollLayout当前的滚动view，并且OverScrollLayout在窗口上时回调，可以在这里注册监听
+     */
+    default void onAttach() {
+    }
+
+    /**
+     * 不再是当前的滚动view，或者OverScrollLayout离开窗口时回调，需要移除{@link #onAttach()}中注册的监听
+     */
+    default void onDetach() {
+    }
+
+    /**
+     * 嵌套滚动开始
+     *
+     * @param type ViewCompat.TYPE_TOUCH、ViewCompat.TYPE_NON_TOUCH
+     */
+    default void onNestedScrollStarted(int type) {
+    }
+
+    /**
+     * 嵌套滚动结束
+     *
+     * @param type ViewCompat.TYPE_TOUCH、ViewCompat.TYPE_NON_TOUCH
+     */
+    default void onNestedScrollStopped(int type) {
+    }
+
+    /**
+     * 创建适配器的工厂
+     */
+    interface Factory {
+
+        /**
+         * 是否能处理该view
+         */
+        boolean isScrollTarget(@NonNull View view);
+
+        /**
+         * 为view创建适配器，只有{@link #isScrollTarget(View)}返回true时才会调用
+         */
+        @NonNull
+        ScrollTargetAdapter create(@NonNull View view);
+    }
+}
@@ -0,0 +1,513 @@
+package com.yang.overscrolllayout;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.view.NestedScrollingChild;
+import androidx.core.view.ScrollingView;
+import androidx.core.view.ViewCompat;
+import androidx.core.widget.NestedScrollView;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * 内置的滚动view适配器
+ *
+ * ViewPager2的页面是通过内部的RecyclerView发起嵌套滚动的，由RecyclerView的适配器处理。
+ */
+public final class ScrollTargetAdapters {
+
+    /**
+     * RecyclerView
+     */
+    public static final ScrollTargetAdapter.Factory RECYCLER_VIEW = new ScrollTargetAdapter.Factory() {
+        @Override
+        public boolean isScrollTarget(@NonNull View view) {
+            return view instanceof RecyclerView;
+        }
+
+        @NonNull
+        @Override
+        public ScrollTargetAdapter create(@NonNull View view) {
+            return new RecyclerViewAdapter((RecyclerView) view);
+        }
+    };
+
+    /**
+     * NestedScrollView
+     */
+    public static final ScrollTargetAdapter.Factory NESTED_SCROLL_VIEW = new ScrollTargetAdapter.Factory() {
+        @Override
+        public boolean isScrollTarget(@NonNull View view) {
+            return view instanceof NestedScrollView;
+        }
+
+        @NonNull
+        @Override
+        public ScrollTargetAdapter create(@NonNull View view) {
+            return new NestedScrollViewAdapter((NestedScrollView) view);
+        }
+    };
+
+    /**
+     * 实现了ScrollingView的NestedScrollingChild，比如自定义的滚动view
+     */
+    public static final ScrollTargetAdapter.Factory SCROLLING_VIEW = new ScrollTargetAdapter.Factory() {
+        @Override
+        public boolean isScrollTarget(@NonNull View view) {
+            return view instanceof ScrollingView && view instanceof NestedScrollingChild;
+        }
+
+        @NonNull
+        @Override
+        public ScrollTargetAdapter create(@NonNull View view) {
+            return new ScrollingViewAdapter(view);
+        }
+    };
+
+    /**
+     * 其他的NestedScrollingChild，比如支持嵌套滚动的WebView，使用View.canScrollVertically判断
+     */
+    public static final ScrollTargetAdapter.Factory NESTED_SCROLLING_CHILD = new ScrollTargetAdapter.Factory() {
+        @Override
+        public boolean isScrollTarget(@NonNull View view) {
+            return view instanceof NestedScrollingChild;
+        }
+
+        @NonNull
+        @Override
+        public ScrollTargetAdapter create(@NonNull View view) {
+            return new ViewAdapter(view);
+        }
+    };
+
+    /**
+     * 内置适配器，按顺序匹配
+     */
+    static final ScrollTargetAdapter.Factory[] DEFAULT_FACTORIES = {
+            RECYCLER_VIEW,
+            NESTED_SCROLL_VIEW,
+            SCROLLING_VIEW,
+            NESTED_SCROLLING_CHILD,
+    };
+
+    private ScrollTargetAdapters() {
+    }
+
+    /**
+     * 用内置适配器匹配view，都不匹配时返回null
+     */
+    @Nullable
+    public static ScrollTargetAdapter.Factory findDefaultFactory(@NonNull View view) {
+        for (ScrollTargetAdapter.Factory factory : DEFAULT_FACTORIES) {
+            if (factory.isScrollTarget(view)) {
+                return factory;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 为view创建内置适配器，都不匹配时使用View.canScrollVertically判断
+     */
+    @NonNull
+    public static ScrollTargetAdapter create(@NonNull View view) {
+        ScrollTargetAdapter.Factory factory = findDefaultFactory(view);
+        return factory != null ? factory.create(view) : new ViewAdapter(view);
+    }
+
+    /**
+     * 用compute*ScrollOffset/Range/Extent计算向direction方向还能滚动的距离
+     */
+    static int computeScrollRemaining(int offset, int range, int extent, int direction) {
+        int maxOffset = range - extent;
+        if (maxOffset <= 0) {
+            return 0;
+        }
+        return Math.max(0, direction < 0 ? offset : maxOffset - offset);
+    }
+
+    /**
+     * 通用的适配器，使用View.canScrollVertically、View.canScrollHorizontally判断
+     */
+    public static class ViewAdapter implements ScrollTargetAdapter {
+
+        protected final View mView;
+
+        public ViewAdapter(@NonNull View view) {
+            mView = view;
+        }
+
+        @Override
+        public boolean supportsAxes(int nestedScrollAxes) {
+            return nestedScrollAxes != ViewCompat.SCROLL_AXIS_NONE;
+        }
+
+        @Override
+        public boolean canScrollVertically(int direction) {
+            return mView.canScrollVertically(direction);
+        }
+
+        @Override
+        public boolean canScrollHorizontally(int direction) {
+            return mView.canScrollHorizontally(direction);
+        }
+    }
+
+    /**
+     * RecyclerView的适配器，只在LayoutManager支持的方向上嵌套滚动
+     *
+     * RecyclerView.canScrollVertically每次都要让LayoutManager计算offset、range、extent，列表复杂时开销明显。
+     * 绑定到OverScrollLayout后，根据滚动回调、数据变化、布局变化增量维护每个方向能否滚动，
+     * 缓存失效时才直接查询。没有绑定时每次都直接查询。
+     */
+    public static class RecyclerViewAdapter implements ScrollTargetAdapter {
+
+        //缓存状态：未知、不能滚动、能滚动
+        private static final int EDGE_UNKNOWN = -1;
+        private static final int EDGE_NO = 0;
+        private static final int EDGE_YES = 1;
+
+        protected final RecyclerView mRecyclerView;
+
+        //是否绑定，只有绑定后注册了监听，缓存才可信
+        private boolean mAttached = false;
+
+        //canScrollVertically(-1)、canScrollVertically(1)、canScrollHorizontally(-1)、canScrollHorizontally(1)的缓存
+        private int mCanScrollVerticallyBackward = EDGE_UNKNOWN;
+        private int mCanScrollVerticallyForward = EDGE_UNKNOWN;
+        private int mCanScrollHorizontallyBackward = EDGE_UNKNOWN;
+        private int mCanScrollHorizontallyForward = EDGE_UNKNOWN;
+
+        //注册了数据监听的adapter，RecyclerView换了adapter时重新注册
+        private RecyclerView.Adapter<?> mObservedAdapter = null;
+
+        private final RecyclerView.OnScrollListener mScrollListener = new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dx == 0 && dy == 0) {
+                    //布局计算后可见范围变化时回调(0, 0)
+                    invalidate();
+                    return;
+                }
+                //向某个方向滚动了，反方向一定能滚动，同方向可能到头了
+                if (dy > 0) {
+                    mCanScrollVerticallyBackward = EDGE_YES;
+                    mCanScrollVerticallyForward = EDGE_UNKNOWN;
+                } else if (dy < 0) {
+                    mCanScrollVerticallyForward = EDGE_YES;
+                    mCanScrollVerticallyBackward = EDGE_UNKNOWN;
+                }
+                if (dx > 0) {
+                    mCanScrollHorizontallyBackward = EDGE_YES;
+                    mCanScrollHorizontallyForward = EDGE_UNKNOWN;
+                } else if (dx < 0) {
+                    mCanScrollHorizontallyForward = EDGE_YES;
+                    mCanScrollHorizontallyBackward = EDGE_UNKNOWN;
+                }
+            }
+        };
+
+        private final RecyclerView.AdapterDataObserver mDataObserver = new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onChanged() {
+                invalidate();
+            }
+
+            @Override
+            public void onItemRangeChanged(int positionStart, int itemCount) {
+                invalidate();
+            }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                invalidate();
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                invalidate();
+            }
+
+            @Override
+            public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+                invalidate();
+            }
+        };
+
+        private final View.OnLayoutChangeListener mLayoutChangeListener = new View.OnLayoutChangeListener() {
+            @Override
+            public void onLayoutChange(View v, int left, int top, int right, int bottom,
+                                       int oldLeft, int oldTop, int oldRight, int oldBottom) {
+                invalidate();
+            }
+        };
+
+        //item重新绑定、动画时高度可能变化
+        private final RecyclerView.OnChildAttachStateChangeListener mChildAttachListener = new RecyclerView.OnChildAttachStateChangeListener() {
+            @Override
+            public void onChildViewAttachedToWindow(@NonNull View view) {
+                invalidate();
+            }
+
+            @Override
+            public void onChildViewDetachedFromWindow(@NonNull View view) {
+                invalidate();
+            }
+        };
+
+        public RecyclerViewAdapter(@NonNull RecyclerView recyclerView) {
+            mRecyclerView = recyclerView;
+        }
+
+        @Override
+        public boolean supportsAxes(int nestedScrollAxes) {
+            RecyclerView.LayoutManager layoutManager = mRecyclerView.getLayoutManager();
+            if (layoutManager == null) {
+                return false;
+            }
+            return ((nestedScrollAxes & ViewCompat.SCROLL_AXIS_VERTICAL) != 0 && layoutManager.canScrollVertically())
+                    || ((nestedScrollAxes & ViewCompat.SCROLL_AXIS_HORIZONTAL) != 0 && layoutManager.canScrollHorizontally());
+        }
+
+        @Override
+        public void onAttach() {
+            if (mAttached) {
+                return;
+            }
+            mAttached = true;
+            mRecyclerView.addOnScrollListener(mScrollListener);
+            mRecyclerView.addOnLayoutChangeListener(mLayoutChangeListener);
+            mRecyclerView.addOnChildAttachStateChangeListener(mChildAttachListener);
+            observeAdapter(mRecyclerView.getAdapter());
+            invalidate();
+        }
+
+        @Override
+        public void onDetach() {
+            if (!mAttached) {
+                return;
+            }
+            mAttached = false;
+            mRecyclerView.removeOnScrollListener(mScrollListener);
+            mRecyclerView.removeOnLayoutChangeListener(mLayoutChangeListener);
+            mRecyclerView.removeOnChildAttachStateChangeListener(mChildAttachListener);
+            observeAdapter(null);
+            invalidate();
+        }
+
+        /**
+         * 清空缓存，下次判断时直接查询RecyclerView
+         */
+        public void invalidate() {
+            mCanScrollVerticallyBackward = EDGE_UNKNOWN;
+            mCanScrollVerticallyForward = EDGE_UNKNOWN;
+            mCanScrollHorizontallyBackward = EDGE_UNKNOWN;
+            mCanScrollHorizontallyForward = EDGE_UNKNOWN;
+        }
+
+        @Override
+        public void onUnconsumedScroll(int dxUnconsumed, int dyUnconsumed) {
+            //RecyclerView在dispatchNestedScroll之后才回调onScrolled，到达边界的这一帧缓存的还是滚动之前的结果
+            if (dyUnconsumed > 0) {
+                mCanScrollVerticallyForward = EDGE_UNKNOWN;
+            } else if (dyUnconsumed < 0) {
+                mCanScrollVerticallyBackward = EDGE_UNKNOWN;
+            }
+            if (dxUnconsumed > 0) {
+                mCanScrollHorizontallyForward = EDGE_UNKNOWN;
+            } else if (dxUnconsumed < 0) {
+                mCanScrollHorizontallyBackward = EDGE_UNKNOWN;
+            }
+        }
+
+        @Override
+        public boolean canScrollVertically(int direction) {
+            if (!isCacheUsable()) {
+                return mRecyclerView.canScrollVertically(direction);
+            }
+            if (direction < 0) {
+                if (mCanScrollVerticallyBackward == EDGE_UNKNOWN) {
+                    mCanScrollVerticallyBackward = toEdgeState(mRecyclerView.canScrollVertically(direction));
+                }
+                return mCanScrollVerticallyBackward == EDGE_YES;
+            } else {
+                if (mCanScrollVerticallyForward == EDGE_UNKNOWN) {
+                    mCanScrollVerticallyForward = toEdgeState(mRecyclerView.canScrollVertically(direction));
+                }
+                return mCanScrollVerticallyForward == EDGE_YES;
+            }
+        }
+
+        @Override
+        public boolean canScrollHorizontally(int direction) {
+            if (!isCacheUsable()) {
+                return mRecyclerView.canScrollHorizontally(direction);
+            }
+            if (direction < 0) {
+                if (mCanScrollHorizontallyBackward == EDGE_UNKNOWN) {
+                    mCanScrollHorizontallyBackward = toEdgeState(mRecyclerView.canScrollHorizontally(direction));
+                }
+                return mCanScrollHorizontallyBackward == EDGE_YES;
+            } else {
+                if (mCanScrollHorizontallyForward == EDGE_UNKNOWN) {
+                    mCanScrollHorizontallyForward = toEdgeState(mRecyclerView.canScrollHorizontally(direction));
+                }
+                return mCanScrollHorizontallyForward == EDGE_YES;
+            }
+        }
+
+        @Override
+        public int getVerticalScrollRemaining(int direction) {
+            //LinearLayoutManager默认按可见item估算，item高度不一时有误差，预测时会校验
+            return computeScrollRemaining(mRecyclerView.computeVerticalScrollOffset(),
+                    mRecyclerView.computeVerticalScrollRange(), mRecyclerView.computeVerticalScrollExtent(), direction);
+        }
+
+        @Override
+        public int getHorizontalScrollRemaining(int direction) {
+            return computeScrollRemaining(mRecyclerView.computeHorizontalScrollOffset(),
+                    mRecyclerView.computeHorizontalScrollRange(), mRecyclerView.computeHorizontalScrollExtent(), direction);
+        }
+
+        private boolean isCacheUsable() {
+            if (!mAttached) {
+                return false;
+            }
+            //RecyclerView没有换adapter的回调，用到时检查
+            RecyclerView.Adapter<?> adapter = mRecyclerView.getAdapter();
+            if (adapter != mObservedAdapter) {
+                observeAdapter(adapter);
+                invalidate();
+            }
+            //item动画过程中高度一直在变，不缓存
+            return !mRecyclerView.isAnimating();
+        }
+
+        private void observeAdapter(@Nullable RecyclerView.Adapter<?> adapter) {
+            if (mObservedAdapter != null) {
+                mObservedAdapter.unregisterAdapterDataObserver(mDataObserver);
+            }
+            mObservedAdapter = adapter;
+            if (adapter != null) {
+                adapter.registerAdapterDataObserver(mDataObserver);
+            }
+        }
+
+        private static int toEdgeState(boolean canScroll) {
+            return canScroll ? EDGE_YES : EDGE_NO;
+        }
+    }
+
+    /**
+     * NestedScrollView的适配器，直接用scrollY和子view的高度判断，不用计算滚动范围
+     */
+    public static class NestedScrollViewAdapter implements ScrollTargetAdapter {
+
+        protected final NestedScrollView mScrollView;
+
+        public NestedScrollViewAdapter(@NonNull NestedScrollView scrollView) {
+            mScrollView = scrollView;
+        }
+
+        @Override
+        public boolean supportsAxes(int nestedScrollAxes) {
+            return (nestedScrollAxes & ViewCompat.SCROLL_AXIS_VERTICAL) != 0;
+        }
+
+        @Override
+        public boolean canScrollVertically(int direction) {
+            int scrollY = mScrollView.getScrollY();
+            if (direction < 0) {
+                return scrollY > 0;
+            }
+            return scrollY < getScrollRange();
+        }
+
+        @Override
+        public boolean canScrollHorizontally(int direction) {
+            return false;
+        }
+
+        @Override
+        public int getVerticalScrollRemaining(int direction) {
+            int scrollY = mScrollView.getScrollY();
+            return Math.max(0, direction < 0 ? scrollY : getScrollRange() - scrollY);
+        }
+
+        @Override
+        public int getHorizontalScrollRemaining(int direction) {
+            return 0;
+        }
+
+        private int getScrollRange() {
+            if (mScrollView.getChildCount() == 0) {
+                return 0;
+            }
+            View child = mScrollView.getChildAt(0);
+            int childSize = child.getHeight();
+            ViewGroup.LayoutParams lp = child.getLayoutParams();
+            if (lp instanceof ViewGroup.MarginLayoutParams) {
+                childSize += ((ViewGroup.MarginLayoutParams) lp).topMargin + ((ViewGroup.MarginLayoutParams) lp).bottomMargin;
+            }
+            int parentSpace = mScrollView.getHeight() - mScrollView.getPaddingTop() - mScrollView.getPaddingBottom();
+            return Math.max(0, childSize - parentSpace);
+        }
+    }
+
+    /**
+     * ScrollingView的适配器，用compute*ScrollOffset/Range/Extent判断，和View.canScrollVertically的逻辑一致
+     */
+    public static class ScrollingViewAdapter implements ScrollTargetAdapter {
+
+        protected final View mView;
+        protected final ScrollingView mScrollingView;
+
+        public ScrollingViewAdapter(@NonNull View view) {
+            mView = view;
+            mScrollingView = (ScrollingView) view;
+        }
+
+        @Override
+        public boolean supportsAxes(int nestedScrollAxes) {
+            return nestedScrollAxes != ViewCompat.SCROLL_AXIS_NONE;
+        }
+
+        @Override
+        public boolean canScrollVertically(int direction) {
+            int offset = mScrollingView.computeVerticalScrollOffset();
+            int range = mScrollingView.computeVerticalScrollRange() - mScrollingView.computeVerticalScrollExtent();
+            if (range == 0) return false;
+            if (direction < 0) {
+                return offset > 0;
+            } else {
+                return offset < range - 1;
+            }
+        }
+
+        @Override
+        public boolean canScrollHorizontally(int direction) {
+            int offset = mScrollingView.computeHorizontalScrollOffset();
+            int range = mScrollingView.computeHorizontalScrollRange() - mScrollingView.computeHorizontalScrollExtent();
+            if (range == 0) return false;
+            if (direction < 0) {
+                return offset > 0;
+            } else {
+                return offset < range - 1;
+            }
+        }
+
+        @Override
+        public int getVerticalScrollRemaining(int direction) {
+            return computeScrollRemaining(mScrollingView.computeVerticalScrollOffset(),
+                    mScrollingView.computeVerticalScrollRange(), mScrollingView.computeVerticalScrollExtent(), direction);
+        }
+
+        @Override
+        public int getHorizontalScrollRemaining(int direction) {
+            return computeScrollRemaining(mScrollingView.computeHorizontalScrollOffset(),
+                    mScrollingView.computeHorizontalScrollRange(), mScrollingView.computeHorizontalScrollExtent(), direction);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.yang.overscrolllayout;
+
+/**
+ * 弹簧回弹的解析解，质量为1，平衡位置为0
+ *
+ * x'' + 2ζω0x' + ω0²x = 0，ω0 = sqrt(stiffness)，ζ为阻尼比
+ *
+ * ζ &lt; 1 欠阻尼，会越过0点再回来；ζ = 1 临界阻尼，最快回到0点且不越过；ζ &gt; 1 过阻尼。
+ * 每帧直接用时间求位置和速度，不做逐帧积分，可以带着初速度开始，速度是连续的。
+ */
+public final class SpringSimulation {
+
+    /**
+     * 默认刚度
+     */
+    public static final float DEFAULT_STIFFNESS = 400f;
+
+    /**
+     * 默认阻尼比，临界阻尼
+     */
+    public static final float DEFAULT_DAMPING_RATIO = 1f;
+
+    //位置和速度都小于这两个值时认为已经静止，单位px、px/s
+    private static final float REST_DISTANCE = 0.5f;
+    private static final float REST_VELOCITY = 20f;
+
+    private static final float NANOS_PER_SECOND = 1000000000f;
+
+    private float mStiffness = DEFAULT_STIFFNESS;
+    private float mDampingRatio = DEFAULT_DAMPING_RATIO;
+
+    //由mStiffness、mDampingRatio计算的系数
+    private double mNaturalFrequency;
+    private double mDampedFrequency;
+    private double mRoot1;
+    private double mRoot2;
+
+    //由初始位置、初始速度计算的系数
+    private double mCoefficient1;
+    private double mCoefficient2;
+
+    private long mStartTimeNanos;
+
+    private float mPosition;
+    private float mVelocity;
+    private boolean mFinished = true;
+
+    public SpringSimulation() {
+        computeFrequency();
+    }
+
+    public SpringSimulation(float stiffness, float dampingRatio) {
+        setStiffness(stiffness);
+        setDampingRatio(dampingRatio);
+    }
+
+    public void setStiffness(float stiffness) {
+        if (stiffness <= 0) {
+            throw new IllegalArgumentException("stiffness must be greater than 0");
+        }
+        mStiffness = stiffness;
+        computeFrequency();
+    }
+
+    public float getStiffness() {
+        return mStiffness;
+    }
+
+    public void setDampingRatio(float dampingRatio) {
+        if (dampingRatio <= 0) {
+            throw new IllegalArgumentException("dampingRatio must be greater than 0");
+        }
+        mDampingRatio = dampingRatio;
+        computeFrequency();
+    }
+
+    public float getDampingRatio() {
+        return mDampingRatio;
+    }
+
+    private void computeFrequency() {
+        double w0 = Math.sqrt(mStiffness);
+        double z = mDampingRatio;
+        mNaturalFrequency = w0;
+        if (z < 1) {
+            mDampedFrequency = w0 * Math.sqrt(1 - z * z);
+        } else if (z > 1) {
+            double d = Math.sqrt(z * z - 1);
+            mRoot1 = -w0 * (z - d);
+            mRoot2 = -w0 * (z + d);
+        }
+    }
+
+    /**
+     * 从startPosition开始，以startVelocity为初速度回到0点
+     *
+     * @param startPosition 初始位置，单位px
+     * @param startVelocity 初始速度，单位px/s
+     * @param startTimeNanos 开始时间，和Choreographer帧时间同一时间基准
+     */
+    public void start(float startPosition, float startVelocity, long startTimeNanos) {
+        mStartTimeNanos = startTimeNanos;
+        mPosition = startPosition;
+        mVelocity = startVelocity;
+
+        double x0 = startPosition;
+        double v0 = startVelocity;
+        double w0 = mNaturalFrequency;
+        double z = mDampingRatio;
+        if (z < 1) {
+            mCoefficient1 = x0;
+            mCoefficient2 = (v0 + z * w0 * x0) / mDampedFrequency;
+        } else if (z == 1) {
+            mCoefficient1 = x0;
+            mCoefficient2 = v0 + w0 * x0;
+        } else {
+            mCoefficient2 = (v0 - mRoot1 * x0) / (mRoot2 - mRoot1);
+            mCoefficient1 = x0 - mCoefficient2;
+        }
+        mFinished = isAtRest(startPosition, startVelocity);
+        if (mFinished) {
+            mPosition = 0;
+            mVelocity = 0;
+        }
+    }
+
+    /**
+     * 计算frameTimeNanos时的位置和速度
+     *
+     * @return 是否还在运动，静止时位置和速度都归0
+     */
+    public boolean update(long frameTimeNanos) {
+        if (mFinished) {
+            return false;
+        }
+        double t = (frameTimeNanos - mStartTimeNanos) / NANOS_PER_SECOND;
+        if (t < 0) {
+            t = 0;
+        }
+
+        double w0 = mNaturalFrequency;
+        double z = mDampingRatio;
+        double x;
+        double v;
+        if (z < 1) {
+            double wd = mDampedFrequency;
+            double envelope = Math.exp(-z * w0 * t);
+            double cos = Math.cos(wd * t);
+            double sin = Math.sin(wd * t);
+            x = envelope * (mCoefficient1 * cos + mCoefficient2 * sin);
+            v = envelope * ((mCoefficient2 * wd - z * w0 * mCoefficient1) * cos
+                    - (mCoefficient1 * wd + z * w0 * mCoefficient2) * sin);
+        } else if (z == 1) {
+            double envelope = Math.exp(-w0 * t);
+            x = (mCoefficient1 + mCoefficient2 * t) * envelope;
+            v = (mCoefficient2 - w0 * (mCoefficient1 + mCoefficient2 * t)) * envelope;
+        } else {
+            double e1 = Math.exp(mRoot1 * t);
+            double e2 = Math.exp(mRoot2 * t);
+            x = mCoefficient1 * e1 + mCoefficient2 * e2;
+            v = mCoefficient1 * mRoot1 * e1 + mCoefficient2 * mRoot2 * e2;
+        }
+
+        mPosition = (float) x;
+        mVelocity = (float) v;
+        if (isAtRest(mPosition, mVelocity)) {
+            mPosition = 0;
+            mVelocity = 0;
+            mFinished = true;
+        }
+        return !mFinished;
+    }
+
+    private static boolean isAtRest(float position, float velocity) {
+        return Math.abs(position) < REST_DISTANCE && Math.abs(velocity) < REST_VELOCITY;
+    }
+
+    public void abort() {
+        mFinished = true;
+    }
+
+    public boolean isFinished() {
+        return mFinished;
+    }
+
+    /**
+     * 当前位置，单位px
+     */
+    public float getPosition() {
+        return mPosition;
+    }
+
+    /**
+     * 当前速度，单位px/s
+     */
+    public float getVelocity() {
+        return mVelocity;
+    }
+}
@@ -0,0 +1,131 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 动画驱动的状态转换，每个状态下最多只有一个帧回调在排队
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class AnimationDriverStateTest {
+
+    private static final int IDLE = OverScrollLayout.AnimationDriver.STATE_IDLE;
+    private static final int FLING_OVERSCROLL = OverScrollLayout.AnimationDriver.STATE_FLING_OVERSCROLL;
+    private static final int SPRING_BACK = OverScrollLayout.AnimationDriver.STATE_SPRING_BACK;
+
+    /**
+     * 记录状态的变化
+     */
+    private static final class StateRecorder {
+        final OverScrollSimulator sim;
+        final List<Integer> states = new ArrayList<>();
+
+        StateRecorder(OverScrollSimulator sim) {
+            this.sim = sim;
+            check();
+        }
+
+        void check() {
+            int state = sim.layout.getAnimationState();
+            //非IDLE时总有一个帧回调在排队，IDLE时没有
+            assertEquals(state != IDLE, sim.layout.isAnimationFrameScheduled());
+            if (states.isEmpty() || states.get(states.size() - 1) != state) {
+                states.add(state);
+            }
+        }
+
+        void runUntilIdle() {
+            int frames = 0;
+            while (sim.layout.isAnimationRunning()) {
+                assertTrue(frames++ < OverScrollSimulator.MAX_FRAMES);
+                sim.frame();
+                check();
+            }
+        }
+    }
+
+    @Test
+    public void release_springBackThenIdle() {
+        OverScrollSimulator sim = new OverScrollSimulator();
+        StateRecorder recorder = new StateRecorder(sim);
+        sim.dragFromTop(-30, 20);
+        //拖动不是动画
+        recorder.check();
+        sim.release(0);
+        recorder.check();
+        assertEquals(SPRING_BACK, sim.layout.getAnimationState());
+        recorder.runUntilIdle();
+        assertEquals(Arrays.asList(IDLE, SPRING_BACK, IDLE), recorder.states);
+        assertEquals(0f, sim.target.getTranslationY(), 0f);
+    }
+
+    @Test
+    public void springMode_springBackThenIdle() {
+        OverScrollSimulator sim = new OverScrollSimulator();
+        sim.layout.setSpringBackMode(OverScrollLayout.SPRING_BACK_MODE_SPRING);
+        StateRecorder recorder = new StateRecorder(sim);
+        sim.dragFromTop(-30, 20);
+        sim.release(-2000);
+        recorder.check();
+        recorder.runUntilIdle();
+        assertEquals(Arrays.asList(IDLE, SPRING_BACK, IDLE), recorder.states);
+    }
+
+    @Test
+    public void flingIntoEdge_flingOverScrollReturnsWithoutSpringBack() {
+        OverScrollSimulator sim = new OverScrollSimulator();
+        StateRecorder recorder = new StateRecorder(sim);
+        sim.touchDown();
+        sim.drag(40, 5);
+        sim.releaseWithChildFling(8000);
+        recorder.check();
+        sim.flingToEdge(60, 8);
+        recorder.check();
+        recorder.runUntilIdle();
+        assertEquals(Arrays.asList(IDLE, FLING_OVERSCROLL, IDLE), recorder.states);
+        assertEquals(0f, sim.target.getTranslationY(), 0f);
+    }
+
+    @Test
+    public void touchDown_stopsAnimation() {
+        OverScrollSimulator sim = new OverScrollSimulator();
+        StateRecorder recorder = new StateRecorder(sim);
+        sim.dragFromTop(-30, 20);
+        sim.release(0);
+        sim.frames(5);
+        recorder.check();
+        sim.touchDown();
+        recorder.check();
+        assertEquals(IDLE, sim.layout.getAnimationState());
+        sim.drag(-10, 5);
+        sim.release(0);
+        recorder.check();
+        recorder.runUntilIdle();
+        assertEquals(Arrays.asList(IDLE, SPRING_BACK, IDLE, SPRING_BACK, IDLE), recorder.states);
+
+        //惯性过度滚动中按下
+        sim.touchDown();
+        sim.drag(40, 5);
+        sim.releaseWithChildFling(8000);
+        sim.flingToEdge(60, 8);
+        sim.frame();
+        recorder.check();
+        sim.touchDown();
+        recorder.check();
+        assertEquals(IDLE, sim.layout.getAnimationState());
+        sim.release(0);
+        recorder.check();
+        recorder.runUntilIdle();
+        assertEquals(Arrays.asList(IDLE, SPRING_BACK, IDLE, SPRING_BACK, IDLE, FLING_OVERSCROLL, IDLE, SPRING_BACK, IDLE),
+                recorder.states);
+    }
+}
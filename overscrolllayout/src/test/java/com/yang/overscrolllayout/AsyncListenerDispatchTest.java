@@ -0,0 +1,67 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * 带Executor的监听器：拖动过程中合并提交，按原来的监听器移除
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class AsyncListenerDispatchTest {
+
+    @Test
+    public void conflatedAndRemovable() {
+        OverScrollSimulator sim = new OverScrollSimulator();
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Float> received = new ArrayList<>();
+        OverScrollLayout.OnOverScrollListener listener = new OverScrollLayout.OnOverScrollListener() {
+            @Override
+            public void onOverScroll(OverScrollLayout.Axes axes, int translation, int actualTranslation) {
+            }
+
+            @Override
+            public void onOverScroll(OverScrollLayout.Axes axes, float translation, float actualTranslation) {
+                received.add(actualTranslation);
+            }
+        };
+        sim.layout.addOnOverScrollListener(listener, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        });
+        sim.dragFromTop(-30, 20);
+        //拖动过程中没有执行任务，只提交了一次
+        assertEquals(1, tasks.size());
+        assertTrue(received.isEmpty());
+        tasks.remove(0).run();
+        assertEquals(1, received.size());
+        assertEquals(sim.target.getTranslationY(), received.get(0), 0f);
+
+        sim.releaseAndSettle();
+        assertEquals(1, tasks.size());
+        tasks.remove(0).run();
+        assertEquals(0f, received.get(received.size() - 1), 0f);
+
+        //按原来的监听器移除，已经提交的任务不再回调
+        sim.touchDown();
+        sim.drag(-5, 5);
+        sim.layout.removeOnOverScrollListener(listener);
+        int count = received.size();
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+        sim.releaseAndSettle();
+        assertTrue(tasks.isEmpty());
+        assertEquals(count, received.size());
+    }
+}
@@ -0,0 +1,259 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * 在Executor上回调的监听器测试
+ */
+public class AsyncOverScrollListenerTest {
+
+    /**
+     * 手动执行提交的任务
+     */
+    private static class ManualExecutor implements Executor {
+        final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.poll().run();
+            }
+        }
+    }
+
+    private static class RecordingListener implements OverScrollLayout.OnOverScrollListener {
+        final List<String> calls = new ArrayList<>();
+
+        @Override
+        public void onOverScroll(OverScrollLayout.Axes axes, int translation, int actualTranslation) {
+            fail("float callback expected");
+        }
+
+        @Override
+        public void onOverScroll(OverScrollLayout.Axes axes, float translation, float actualTranslation) {
+            calls.add((axes == OverScrollLayout.Axes.HORIZONTAL ? "HORIZONTAL" : "VERTICAL") + ":" + translation + "," + actualTranslation);
+        }
+
+        @Override
+        public void onOverScroll(float translationX, float translationY, float actualTranslationX, float actualTranslationY) {
+            calls.add("BOTH:" + translationX + "," + translationY + "," + actualTranslationX + "," + actualTranslationY);
+        }
+    }
+
+    @Test
+    public void pack_roundTrips() {
+        float[] values = {0f, -0f, 1.5f, -123.25f, Float.MAX_VALUE, Float.MIN_VALUE};
+        for (float translation : values) {
+            for (float actual : values) {
+                long packed = AsyncOverScrollListener.pack(translation, actual);
+                assertEquals(Float.floatToRawIntBits(translation), Float.floatToRawIntBits(AsyncOverScrollListener.translationOf(packed)));
+                assertEquals(Float.floatToRawIntBits(actual), Float.floatToRawIntBits(AsyncOverScrollListener.actualTranslationOf(packed)));
+            }
+        }
+    }
+
+    @Test
+    public void updates_conflatedToLatestValue() {
+        ManualExecutor executor = new ManualExecutor();
+        RecordingListener delegate = new RecordingListener();
+        AsyncOverScrollListener listener = new AsyncOverScrollListener(delegate, executor);
+        for (int i = 1; i <= 100; i++) {
+            listener.onOverScroll(OverScrollLayout.Axes.VERTICAL, (float) i, i / 2f);
+        }
+        //只提交了一次
+        assertEquals(1, executor.tasks.size());
+        assertTrue(delegate.calls.isEmpty());
+        executor.runAll();
+        assertEquals(1, delegate.calls.size());
+        assertEquals("VERTICAL:100.0,50.0", delegate.calls.get(0));
+    }
+
+    @Test
+    public void eachAxis_keepsItsOwnSlot() {
+        ManualExecutor executor = new ManualExecutor();
+        RecordingListener delegate = new RecordingListener();
+        AsyncOverScrollListener listener = new AsyncOverScrollListener(delegate, executor);
+        listener.onOverScroll(OverScrollLayout.Axes.HORIZONTAL, 10f, 5f);
+        listener.onOverScroll(OverScrollLayout.Axes.VERTICAL, 20f, 8f);
+        listener.onOverScroll(OverScrollLayout.Axes.HORIZONTAL, 12f, 6f);
+        executor.runAll();
+        assertEquals(2, delegate.calls.size());
+        assertEquals("HORIZONTAL:12.0,6.0", delegate.calls.get(0));
+        assertEquals("VERTICAL:20.0,8.0", delegate.calls.get(1));
+
+        listener.onOverScroll(3f, 4f, 1f, 2f);
+        executor.runAll();
+        assertEquals("BOTH:3.0,4.0,1.0,2.0", delegate.calls.get(2));
+    }
+
+    @Test
+    public void updateDuringCallback_rescheduled() {
+        final ManualExecutor executor = new ManualExecutor();
+        final List<Float> received = new ArrayList<>();
+        final AsyncOverScrollListener[] holder = new AsyncOverScrollListener[1];
+        holder[0] = new AsyncOverScrollListener(new RecordingListener() {
+            @Override
+            public void onOverScroll(OverScrollLayout.Axes axes, float translation, float actualTranslation) {
+                received.add(translation);
+                if (translation == 1f) {
+                    //回调过程中主线程又写入了新的值
+                    holder[0].onOverScroll(OverScrollLayout.Axes.VERTICAL, 2f, 1f);
+                    assertTrue(executor.tasks.isEmpty());
+                }
+            }
+        }, executor);
+        holder[0].onOverScroll(OverScrollLayout.Axes.VERTICAL, 1f, 0.5f);
+        executor.runAll();
+        assertEquals(2, received.size());
+        assertEquals(2f, received.get(1), 0);
+    }
+
+    @Test
+    public void throwingDelegate_doesNotStopDelivery() {
+        ManualExecutor executor = new ManualExecutor();
+        final List<Float> received = new ArrayList<>();
+        AsyncOverScrollListener listener = new AsyncOverScrollListener(new RecordingListener() {
+            @Override
+            public void onOverScroll(OverScrollLayout.Axes axes, float translation, float actualTranslation) {
+                received.add(translation);
+                if (translation == 1f) {
+                    throw new IllegalStateException();
+                }
+            }
+        }, executor);
+        listener.onOverScroll(OverScrollLayout.Axes.VERTICAL, 1f, 1f);
+        try {
+            executor.runAll();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        listener.onOverScroll(OverScrollLayout.Axes.VERTICAL, 2f, 2f);
+        executor.runAll();
+        assertEquals(2, received.size());
+    }
+
+    @Test
+    public void throwingDelegate_otherAxesStillDelivered() {
+        ManualExecutor executor = new ManualExecutor();
+        final List<Float> received = new ArrayList<>();
+        AsyncOverScrollListener listener = new AsyncOverScrollListener(new RecordingListener() {
+            @Override
+            public void onOverScroll(OverScrollLayout.Axes axes, float translation, float actualTranslation) {
+                received.add(translation);
+                if (axes == OverScrollLayout.Axes.HORIZONTAL) {
+                    throw new IllegalStateException();
+                }
+            }
+        }, executor);
+        listener.onOverScroll(OverScrollLayout.Axes.HORIZONTAL, 1f, 1f);
+        listener.onOverScroll(OverScrollLayout.Axes.VERTICAL, 2f, 2f);
+        assertEquals(1, executor.tasks.size());
+        try {
+            executor.tasks.poll().run();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        //没有回调的方向留在标记中，重新提交，不需要等下一次写入
+        assertEquals(1, executor.tasks.size());
+        executor.runAll();
+        assertEquals(2, received.size());
+        assertEquals(1f, received.get(0), 0);
+        assertEquals(2f, received.get(1), 0);
+        //抛出异常的值不会重复回调
+        assertTrue(executor.tasks.isEmpty());
+    }
+
+    @Test
+    public void rejectedExecution_droppedAndRetried() {
+        final boolean[] reject = {true};
+        final ManualExecutor manual = new ManualExecutor();
+        RecordingListener delegate = new RecordingListener();
+        AsyncOverScrollListener listener = new AsyncOverScrollListener(delegate, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                if (reject[0]) {
+                    throw new RejectedExecutionException();
+                }
+                manual.execute(command);
+            }
+        });
+        listener.onOverScroll(OverScrollLayout.Axes.VERTICAL, 1f, 1f);
+        reject[0] = false;
+        listener.onOverScroll(OverScrollLayout.Axes.VERTICAL, 2f, 2f);
+        manual.runAll();
+        assertEquals(1, delegate.calls.size());
+        assertEquals("VERTICAL:2.0,2.0", delegate.calls.get(0));
+    }
+
+    @Test
+    public void cancel_skipsSubmittedTask() {
+        ManualExecutor executor = new ManualExecutor();
+        RecordingListener delegate = new RecordingListener();
+        AsyncOverScrollListener listener = new AsyncOverScrollListener(delegate, executor);
+        listener.onOverScroll(OverScrollLayout.Axes.VERTICAL, 1f, 1f);
+        listener.cancel();
+        listener.onOverScroll(OverScrollLayout.Axes.VERTICAL, 2f, 2f);
+        executor.runAll();
+        assertTrue(delegate.calls.isEmpty());
+        assertTrue(executor.tasks.isEmpty());
+    }
+
+    @Test
+    public void concurrentDelivery_consistentPairsAndLatestValue() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        final int count = 200000;
+        final List<Float> received = new ArrayList<>();
+        final CountDownLatch last = new CountDownLatch(1);
+        final int[] concurrent = {0};
+        AsyncOverScrollListener listener = new AsyncOverScrollListener(new RecordingListener() {
+            @Override
+            public void onOverScroll(OverScrollLayout.Axes axes, float translation, float actualTranslation) {
+                synchronized (received) {
+                    assertEquals(0, concurrent[0]++);
+                    received.add(translation);
+                    //同一次写入的两个值
+                    assertEquals(translation * 2, actualTranslation, 0);
+                    concurrent[0]--;
+                }
+                if (translation == count) {
+                    last.countDown();
+                }
+            }
+        }, executor);
+        for (int i = 1; i <= count; i++) {
+            listener.onOverScroll(OverScrollLayout.Axes.VERTICAL, (float) i, i * 2f);
+        }
+        assertTrue(last.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        synchronized (received) {
+            //合并了中间的值，收到的值递增，最后一个是最新的
+            assertTrue(received.size() <= count);
+            for (int i = 1; i < received.size(); i++) {
+                assertTrue(received.get(i) > received.get(i - 1));
+            }
+            assertEquals(count, received.get(received.size() - 1), 0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullExecutor_throws() {
+        new AsyncOverScrollListener(new RecordingListener(), null);
+    }
+}
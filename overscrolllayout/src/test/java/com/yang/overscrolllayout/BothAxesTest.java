@@ -0,0 +1,80 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Axes.BOTH：两个方向同时过度滚动
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class BothAxesTest {
+
+    private OverScrollSimulator mSim;
+    //每次二维回调时的帧序号
+    private final List<Integer> mCallbackFrames = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        mSim = new OverScrollSimulator();
+        mSim.setAxes(OverScrollLayout.Axes.BOTH);
+        mSim.layout.addOnOverScrollListener(new OverScrollLayout.OnOverScrollListener() {
+            @Override
+            public void onOverScroll(OverScrollLayout.Axes axes, int translation, int actualTranslation) {
+                fail("2D callback expected");
+            }
+
+            @Override
+            public void onOverScroll(float translationX, float translationY, float actualTranslationX, float actualTranslationY) {
+                mCallbackFrames.add(mSim.getFrames());
+            }
+        });
+        mSim.target.setCanScroll(-1, false);
+        mSim.touchDown();
+    }
+
+    @Test
+    public void diagonalDrag_oneCallbackPerMove() {
+        mSim.drag(-20, -30, 10);
+        assertEquals(10, mCallbackFrames.size());
+        assertTrue(mSim.target.getTranslationX() > 0);
+        assertTrue(mSim.target.getTranslationY() > 0);
+        mSim.releaseAndSettle();
+    }
+
+    @Test
+    public void maxDistance_perAxis() {
+        //同样的拖动距离，高度大的竖直方向阻尼更小
+        mSim.drag(-30, -30, 10);
+        assertTrue(mSim.target.getTranslationY() > mSim.target.getTranslationX());
+
+        //两个方向分别按宽、高计算最大距离
+        mSim.drag(-200, -200, 200);
+        assertTrue(mSim.target.getTranslationX() <= OverScrollSimulator.WIDTH);
+        assertTrue(mSim.target.getTranslationY() > OverScrollSimulator.WIDTH);
+        assertTrue(mSim.target.getTranslationY() <= OverScrollSimulator.HEIGHT);
+        mSim.releaseAndSettle();
+    }
+
+    @Test
+    public void springBack_bothAxesInOneCallbackPerFrame() {
+        mSim.drag(-20, -30, 10);
+        mCallbackFrames.clear();
+        mSim.releaseAndSettle();
+        assertEquals(0f, mSim.target.getTranslationX(), 0f);
+        assertEquals(0f, mSim.target.getTranslationY(), 0f);
+        assertFalse(mCallbackFrames.isEmpty());
+        //回弹时两个方向在同一帧写入，每帧最多回调一次
+        for (int i = 1; i < mCallbackFrames.size(); i++) {
+            assertTrue(mCallbackFrames.get(i) > mCallbackFrames.get(i - 1));
+        }
+    }
+}
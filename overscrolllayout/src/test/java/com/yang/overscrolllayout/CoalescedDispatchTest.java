@@ -0,0 +1,103 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link OverScrollLayout#DISPATCH_MODE_COALESCED}：每帧最多回调一次最新的位移
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class CoalescedDispatchTest {
+
+    private static final int MAX_FRAMES = OverScrollSimulator.MAX_FRAMES;
+
+    @Test
+    public void immediate_callbackPerMove() {
+        OverScrollSimulator sim = new OverScrollSimulator();
+        List<Float> values = sim.recordOverScroll();
+        sim.dragFromTop(0, 0);
+        sim.moves(-10, 5);
+        assertEquals(5, values.size());
+        assertFalse(sim.layout.isDispatchScheduled());
+        sim.releaseAndSettle();
+    }
+
+    @Test
+    public void coalesced_oneCallbackPerFrameWithLatestValue() {
+        OverScrollSimulator sim = new OverScrollSimulator();
+        sim.layout.setDispatchMode(OverScrollLayout.DISPATCH_MODE_COALESCED);
+        List<Float> values = sim.recordOverScroll();
+        sim.dragFromTop(0, 0);
+        sim.moves(-10, 5);
+        //帧回调之前不回调
+        assertTrue(values.isEmpty());
+        assertTrue(sim.layout.isDispatchScheduled());
+        sim.frame();
+        assertEquals(1, values.size());
+        assertEquals(sim.target.getTranslationY(), values.get(0), 0f);
+        assertFalse(sim.layout.isDispatchScheduled());
+
+        //没有位移变化的帧不回调
+        sim.frame();
+        assertEquals(1, values.size());
+
+        sim.moves(-10, 3);
+        sim.frame();
+        assertEquals(2, values.size());
+        assertEquals(sim.target.getTranslationY(), values.get(1), 0f);
+        sim.releaseAndSettle();
+    }
+
+    @Test
+    public void coalesced_animationFrameFlushesBeforeDraw() {
+        OverScrollSimulator sim = new OverScrollSimulator();
+        sim.layout.setDispatchMode(OverScrollLayout.DISPATCH_MODE_COALESCED);
+        List<Float> values = sim.recordOverScroll();
+        sim.dragFromTop(-30, 10);
+        sim.release(0);
+        int frames = 0;
+        while (sim.layout.isAnimationRunning()) {
+            assertTrue(frames++ < MAX_FRAMES);
+            int count = values.size();
+            float translation = sim.target.getTranslationY();
+            sim.frame();
+            //回弹的每一帧都在这一帧内回调，不等到下一帧
+            if (sim.target.getTranslationY() != translation) {
+                assertEquals(count + 1, values.size());
+                assertEquals(sim.target.getTranslationY(), values.get(values.size() - 1), 0f);
+            } else {
+                assertEquals(count, values.size());
+            }
+            assertFalse(sim.layout.isDispatchScheduled());
+        }
+        assertEquals(0f, values.get(values.size() - 1), 0f);
+    }
+
+    @Test
+    public void switchToImmediate_flushesPending() {
+        OverScrollSimulator sim = new OverScrollSimulator();
+        sim.layout.setDispatchMode(OverScrollLayout.DISPATCH_MODE_COALESCED);
+        List<Float> values = sim.recordOverScroll();
+        sim.dragFromTop(0, 0);
+        sim.moves(-10, 5);
+        assertTrue(values.isEmpty());
+
+        sim.layout.setDispatchMode(OverScrollLayout.DISPATCH_MODE_IMMEDIATE);
+        assertEquals(1, values.size());
+        assertEquals(sim.target.getTranslationY(), values.get(0), 0f);
+        assertFalse(sim.layout.isDispatchScheduled());
+        //之后立即回调，帧回调中不再重复
+        sim.moves(-10, 2);
+        assertEquals(3, values.size());
+        sim.frame();
+        assertEquals(3, values.size());
+        sim.releaseAndSettle();
+    }
+}
@@ -0,0 +1,61 @@
+package com.yang.overscrolllayout;
+
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.*;
+
+/**
+ * ScrollViewWrapper按方向计算阻尼滑动距离，每个方向使用自己的{@link DampingEngine}
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DampedSlipDistanceTest {
+
+    private static final int MAX_X = 1080;
+    private static final int MAX_Y = 1920;
+
+    private static OverScrollLayout.ScrollViewWrapper newWrapper() {
+        View view = new View(RuntimeEnvironment.getApplication());
+        OverScrollLayout.ScrollViewWrapper wrapper = new OverScrollLayout.ScrollViewWrapper(view, view);
+        wrapper.setMaxOverScrollDistance(MAX_X, MAX_Y);
+        return wrapper;
+    }
+
+    @Test
+    public void eachAxis_usesItsOwnMaxDistance() {
+        OverScrollLayout.ScrollViewWrapper wrapper = newWrapper();
+        float x = wrapper.computeDampedSlipDistance(OverScrollLayout.Axes.HORIZONTAL, 500);
+        float y = wrapper.computeDampedSlipDistance(OverScrollLayout.Axes.VERTICAL, 500);
+        assertEquals(new DampingEngine(MAX_X).damp(500), x, 0.01f);
+        assertEquals(new DampingEngine(MAX_Y).damp(500), y, 0.01f);
+        assertTrue(x < y);
+    }
+
+    @Test
+    public void reverse_roundTrips() {
+        OverScrollLayout.ScrollViewWrapper wrapper = newWrapper();
+        for (OverScrollLayout.Axes axes : new OverScrollLayout.Axes[]{OverScrollLayout.Axes.HORIZONTAL, OverScrollLayout.Axes.VERTICAL}) {
+            float damped = wrapper.computeDampedSlipDistance(axes, 500);
+            assertEquals(500, wrapper.reverseComputeDampedSlipDistance(axes, damped), 1);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void deprecated_isVertical() {
+        OverScrollLayout.ScrollViewWrapper wrapper = newWrapper();
+        assertEquals(wrapper.computeDampedSlipDistance(OverScrollLayout.Axes.VERTICAL, 500f),
+                wrapper.computeDampedSlipDistance(500f), 0f);
+        assertEquals(wrapper.reverseComputeDampedSlipDistance(OverScrollLayout.Axes.VERTICAL, 300f),
+                wrapper.reverseComputeDampedSlipDistance(300f), 0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bothAxes_throws() {
+        newWrapper().computeDampedSlipDistance(OverScrollLayout.Axes.BOTH, 500);
+    }
+}
@@ -0,0 +1,92 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 查找表和原公式的误差测试
+ */
+public class DampingEngineTest {
+
+    //查表插值和原公式之间允许的最大误差，单位px
+    private static final double MAX_ERROR = 0.05;
+
+    private static final int[] MAX_DISTANCES = {1, 50, 300, 1080, 2400, 4000};
+
+    @Test
+    public void damp_matchesFormula() {
+        for (int M : MAX_DISTANCES) {
+            DampingEngine engine = new DampingEngine(M);
+            for (int x = -M * 30; x <= M * 30; x += Math.max(1, M / 200)) {
+                double expected = formula(x, M);
+                float actual = engine.damp(x);
+                assertEquals("M=" + M + " x=" + x, expected, actual, MAX_ERROR);
+                assertTrue("M=" + M + " x=" + x, Math.abs((int) expected - (int) actual) <= 1);
+            }
+        }
+    }
+
+    @Test
+    public void damp_isMonotonicAndBounded() {
+        DampingEngine engine = new DampingEngine(2400);
+        float last = 0;
+        for (int x = 0; x <= 2400 * 40; x++) {
+            float y = engine.damp(x);
+            assertTrue("x=" + x, y >= last);
+            assertTrue("x=" + x, y <= 2400);
+            last = y;
+        }
+    }
+
+    @Test
+    public void undamp_matchesFormula() {
+        for (int M : MAX_DISTANCES) {
+            DampingEngine engine = new DampingEngine(M);
+            for (int y = -M + 1; y < M; y++) {
+                double expected = reverseFormula(y, M);
+                float actual = engine.undamp(y);
+                //越靠近M曲线越陡，按相对误差比较
+                assertEquals("M=" + M + " y=" + y, expected, actual, Math.max(MAX_ERROR, Math.abs(expected) * 1e-4));
+            }
+        }
+    }
+
+    @Test
+    public void undamp_roundTrip() {
+        DampingEngine engine = new DampingEngine(1080);
+        for (int x = -1080 * 5; x <= 1080 * 5; x++) {
+            assertEquals("x=" + x, x, engine.undamp(engine.damp(x)), 0.5);
+        }
+    }
+
+    @Test
+    public void maxDistanceChange_rescales() {
+        DampingEngine engine = new DampingEngine(300);
+        engine.setMaxDistance(1200);
+        assertEquals(formula(500, 1200), engine.damp(500), MAX_ERROR);
+        engine.setMaxDistance(0);
+        assertEquals(0, engine.damp(500), 0);
+        assertEquals(0, engine.undamp(500), 0);
+    }
+
+    private static double formula(int translation, int M) {
+        if (translation == 0) {
+            return 0;
+        }
+        int x = Math.abs(translation);
+        double H = M * 8.75;
+        double y = (M * (1 - Math.pow(100, -x / H)));
+        return y * Math.signum(translation);
+    }
+
+    private static double reverseFormula(int distance, int M) {
+        if (distance == 0) {
+            return 0;
+        }
+        int y = Math.abs(distance);
+        double H = M * 8.75;
+        double x = (Math.log(1 - y / (double) M) / Math.log(100) * (-H));
+        return x * Math.signum(distance);
+    }
+}
@@ -0,0 +1,85 @@
+package com.yang.overscrolllayout;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.view.ViewConfiguration;
+import android.widget.OverScroller;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.LooperMode;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * 惯性滚动曲线和android.widget.OverScroller对比，用Robolectric的虚拟时钟推进OverScroller
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class FlingSplineTest {
+
+    private static final float[] VELOCITIES = {1500, 4000, 8000, -6000};
+
+    @Test
+    public void distanceAndDuration_matchOverScroller() {
+        Context context = RuntimeEnvironment.getApplication();
+        FlingSpline spline = newSpline(context);
+        for (float velocity : VELOCITIES) {
+            OverScroller scroller = new OverScroller(context);
+            scroller.fling(0, 0, 0, (int) velocity, 0, 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            assertEquals("v=" + velocity, Math.abs(scroller.getFinalY()), spline.getDistance(velocity), 1);
+            assertEquals("v=" + velocity, scroller.getDuration() * 1000000L, spline.getDurationNanos(velocity));
+        }
+    }
+
+    @Test
+    public void predict_matchesOverScrollerAtEdge() {
+        Context context = RuntimeEnvironment.getApplication();
+        FlingSpline spline = newSpline(context);
+        for (float velocity : VELOCITIES) {
+            for (int distance = 100; distance < spline.getDistance(velocity) - 50; distance += 300) {
+                assertTrue(spline.predict(velocity, distance));
+                long time = spline.getTimeNanos();
+
+                OverScroller scroller = new OverScroller(context);
+                scroller.fling(0, 0, 0, (int) velocity, 0, 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+                //OverScroller按整毫秒推进
+                SystemClock.sleep(TimeUnit.NANOSECONDS.toMillis(time + 999999));
+                scroller.computeScrollOffset();
+
+                String message = "v=" + velocity + " distance=" + distance;
+                //位置取整，时间最多差1ms
+                float tolerance = Math.abs(spline.getVelocity()) * 2 / 1000 + 1;
+                assertEquals(message, Math.signum(velocity) * distance, scroller.getCurrY(), tolerance);
+                //OverScroller的速度在采样表的每一段内是常数，取整后的时间可能落在相邻的一段，相差几个百分点
+                assertEquals(message, Math.abs(spline.getVelocity()), scroller.getCurrVelocity(), Math.abs(spline.getVelocity()) * 0.05f);
+                assertEquals(message, Math.signum(velocity), Math.signum(spline.getVelocity()), 0);
+            }
+        }
+    }
+
+    @Test
+    public void predict_beyondFlingDistance_false() {
+        FlingSpline spline = newSpline(RuntimeEnvironment.getApplication());
+        assertFalse(spline.predict(4000, (float) spline.getDistance(4000) + 10));
+        assertFalse(spline.predict(0, 10));
+        assertFalse(spline.predict(4000, -1));
+        assertTrue(spline.predict(4000, 0));
+        assertEquals(0, spline.getTimeNanos());
+        assertEquals(4000, spline.getVelocity(), 4000 * 0.02f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidFriction_throws() {
+        new FlingSpline(160, 0);
+    }
+
+    private static FlingSpline newSpline(Context context) {
+        return new FlingSpline(context.getResources().getDisplayMetrics().density * 160.0f,
+                ViewConfiguration.getScrollFriction());
+    }
+}
@@ -0,0 +1,105 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 惯性滚动速度估算测试
+ */
+public class FlingVelocityEstimatorTest {
+
+    private static final long FRAME = 1000000000L / 60;
+
+    @Test
+    public void fewerThanTwoSamples_zeroVelocity() {
+        FlingVelocityEstimator estimator = new FlingVelocityEstimator();
+        assertTrue(estimator.isEmpty());
+        estimator.computeVelocity();
+        assertEquals(0, estimator.getVelocityY(), 0);
+
+        estimator.addMovement(0, 10, 50);
+        assertFalse(estimator.isEmpty());
+        estimator.computeVelocity();
+        assertEquals(0, estimator.getVelocityX(), 0);
+        assertEquals(0, estimator.getVelocityY(), 0);
+    }
+
+    @Test
+    public void constantVelocity() {
+        FlingVelocityEstimator estimator = new FlingVelocityEstimator();
+        for (int i = 0; i < 8; i++) {
+            estimator.addMovement(FRAME * i, -20, 50);
+        }
+        estimator.computeVelocity();
+        assertEquals(-20 * 60, estimator.getVelocityX(), 1f);
+        assertEquals(50 * 60, estimator.getVelocityY(), 1f);
+    }
+
+    @Test
+    public void deceleration_velocityAtNewestSample() {
+        //x(t) = v0 * t - a * t² / 2
+        float v0 = 4000;
+        float a = 6000;
+        FlingVelocityEstimator estimator = new FlingVelocityEstimator();
+        float last = 0;
+        long time = 0;
+        for (int i = 1; i <= 6; i++) {
+            time = FRAME * i;
+            float t = time / 1e9f;
+            float x = v0 * t - a * t * t / 2;
+            estimator.addMovement(time, 0, x - last);
+            last = x;
+        }
+        estimator.computeVelocity();
+        float expected = v0 - a * time / 1e9f;
+        assertEquals(expected, estimator.getVelocityY(), 2f);
+    }
+
+    @Test
+    public void sameTime_mergedIntoOneSample() {
+        FlingVelocityEstimator estimator = new FlingVelocityEstimator();
+        for (int i = 0; i < 5; i++) {
+            //一帧内分两次滚动
+            estimator.addMovement(FRAME * i, 0, 10);
+            estimator.addMovement(FRAME * i, 0, 20);
+        }
+        estimator.computeVelocity();
+        assertEquals(30 * 60, estimator.getVelocityY(), 1f);
+    }
+
+    @Test
+    public void samplesOutsideHorizon_ignored() {
+        FlingVelocityEstimator estimator = new FlingVelocityEstimator();
+        //很早之前的慢速滚动
+        estimator.addMovement(0, 0, 1);
+        estimator.addMovement(FRAME, 0, 1);
+        long start = FRAME + FlingVelocityEstimator.HORIZON_NANOS * 2;
+        for (int i = 0; i < 4; i++) {
+            estimator.addMovement(start + FRAME * i, 0, 40);
+        }
+        estimator.computeVelocity();
+        assertEquals(40 * 60, estimator.getVelocityY(), 1f);
+    }
+
+    @Test
+    public void ringBufferWraps() {
+        FlingVelocityEstimator estimator = new FlingVelocityEstimator();
+        int count = FlingVelocityEstimator.CAPACITY * 3 + 5;
+        for (int i = 0; i < count; i++) {
+            //前面慢，最后几帧快，只有最近的采样起作用
+            float dy = i < count - 4 ? 5 : 40;
+            estimator.addMovement(FRAME * i, 0, dy);
+        }
+        estimator.computeVelocity();
+        assertTrue(estimator.getVelocityY() > 5 * 60);
+
+        estimator.clear();
+        assertTrue(estimator.isEmpty());
+        for (int i = 0; i < count; i++) {
+            estimator.addMovement(FRAME * i, 0, 25);
+        }
+        estimator.computeVelocity();
+        assertEquals(25 * 60, estimator.getVelocityY(), 1f);
+    }
+}
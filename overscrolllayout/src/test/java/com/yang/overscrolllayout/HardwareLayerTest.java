@@ -0,0 +1,112 @@
+package com.yang.overscrolllayout;
+
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link OverScrollLayout#setUseHardwareLayer(boolean)}：过度滚动时提升为硬件层，回到原位置后恢复
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class HardwareLayerTest {
+
+    private static OverScrollSimulator newSimulator() {
+        OverScrollSimulator sim = new OverScrollSimulator();
+        sim.target.setHardwareAccelerated(true);
+        sim.layout.setUseHardwareLayer(true);
+        return sim;
+    }
+
+    @Test
+    public void promotedOnOverScroll_demotedAtRest() {
+        OverScrollSimulator sim = newSimulator();
+        assertEquals(View.LAYER_TYPE_NONE, sim.target.getLayerType());
+        sim.dragFromTop(-10, 1);
+        assertEquals(View.LAYER_TYPE_HARDWARE, sim.target.getLayerType());
+        sim.drag(-10, 5);
+        sim.release(0);
+        sim.frames(3);
+        //回弹过程中保持
+        assertTrue(sim.layout.isAnimationRunning());
+        assertEquals(View.LAYER_TYPE_HARDWARE, sim.target.getLayerType());
+        sim.runUntilIdle(OverScrollSimulator.MAX_FRAMES);
+        assertEquals(View.LAYER_TYPE_NONE, sim.target.getLayerType());
+
+        //再次过度滚动时重新提升
+        sim.dragFromTop(-10, 1);
+        assertEquals(View.LAYER_TYPE_HARDWARE, sim.target.getLayerType());
+        sim.releaseAndSettle();
+        assertEquals(View.LAYER_TYPE_NONE, sim.target.getLayerType());
+    }
+
+    @Test
+    public void appLayerType_notOverwrittenOrReset() {
+        OverScrollSimulator sim = newSimulator();
+        sim.target.setLayerType(View.LAYER_TYPE_SOFTWARE, null);
+        sim.dragFromTop(-10, 5);
+        assertEquals(View.LAYER_TYPE_SOFTWARE, sim.target.getLayerType());
+        sim.releaseAndSettle();
+        assertEquals(View.LAYER_TYPE_SOFTWARE, sim.target.getLayerType());
+
+        //应用自己设置的硬件层，回到原位置后不恢复
+        sim.target.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+        sim.dragFromTop(-10, 5);
+        sim.releaseAndSettle();
+        assertEquals(View.LAYER_TYPE_HARDWARE, sim.target.getLayerType());
+
+        //过度滚动过程中应用修改了图层，之后不再由OverScrollLayout管理
+        sim.target.setLayerType(View.LAYER_TYPE_NONE, null);
+        sim.dragFromTop(-10, 1);
+        assertEquals(View.LAYER_TYPE_HARDWARE, sim.target.getLayerType());
+        sim.target.setLayerType(View.LAYER_TYPE_SOFTWARE, null);
+        sim.drag(-10, 1);
+        sim.target.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+        sim.releaseAndSettle();
+        assertEquals(View.LAYER_TYPE_HARDWARE, sim.target.getLayerType());
+    }
+
+    @Test
+    public void notPromotedWithoutOverScroll() {
+        OverScrollSimulator sim = newSimulator();
+        //静止时开启不提升
+        sim.layout.setUseHardwareLayer(false);
+        sim.layout.setUseHardwareLayer(true);
+        assertEquals(View.LAYER_TYPE_NONE, sim.target.getLayerType());
+
+        //子view自己滚动，没有过度滚动
+        sim.touchDown();
+        sim.drag(-10, 5);
+        assertEquals(0f, sim.target.getTranslationY(), 0f);
+        assertEquals(View.LAYER_TYPE_NONE, sim.target.getLayerType());
+        sim.releaseAndSettle();
+        assertEquals(View.LAYER_TYPE_NONE, sim.target.getLayerType());
+    }
+
+    @Test
+    public void notPromotedWhenDisabledOrNotAccelerated() {
+        OverScrollSimulator sim = new OverScrollSimulator();
+        sim.target.setHardwareAccelerated(true);
+        sim.dragFromTop(-10, 5);
+        assertEquals(View.LAYER_TYPE_NONE, sim.target.getLayerType());
+        //过度滚动过程中开启，立即提升
+        sim.layout.setUseHardwareLayer(true);
+        assertEquals(View.LAYER_TYPE_HARDWARE, sim.target.getLayerType());
+        //关闭时立即恢复
+        sim.layout.setUseHardwareLayer(false);
+        assertEquals(View.LAYER_TYPE_NONE, sim.target.getLayerType());
+        sim.releaseAndSettle();
+
+        //没有硬件加速时硬件层无效
+        sim.target.setHardwareAccelerated(false);
+        sim.layout.setUseHardwareLayer(true);
+        sim.dragFromTop(-10, 5);
+        assertEquals(View.LAYER_TYPE_NONE, sim.target.getLayerType());
+        sim.releaseAndSettle();
+    }
+}
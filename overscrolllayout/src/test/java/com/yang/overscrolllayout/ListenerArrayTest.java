@@ -0,0 +1,75 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 写时复制监听器集合测试
+ */
+public class ListenerArrayTest {
+
+    @Test
+    public void addAndRemove_keepOrder() {
+        ListenerArray<String> listeners = new ListenerArray<>();
+        String a = "a", b = "b", c = "c";
+        listeners.add(a);
+        listeners.add(b);
+        listeners.add(c);
+        assertTrue(listeners.remove(b));
+        assertFalse(listeners.remove(b));
+        assertArrayEquals(new Object[]{a, c}, listeners.getArray());
+        listeners.remove(a);
+        listeners.remove(c);
+        assertTrue(listeners.isEmpty());
+    }
+
+    @Test
+    public void removeDuringDispatch_doesNotAffectCurrentSnapshot() {
+        final ListenerArray<Runnable> listeners = new ListenerArray<>();
+        final List<String> calls = new ArrayList<>();
+        final Runnable second = new Runnable() {
+            @Override
+            public void run() {
+                calls.add("second");
+            }
+        };
+        Runnable first = new Runnable() {
+            @Override
+            public void run() {
+                calls.add("first");
+                listeners.remove(this);
+                listeners.remove(second);
+            }
+        };
+        listeners.add(first);
+        listeners.add(second);
+
+        dispatch(listeners);
+        assertEquals(2, calls.size());
+        assertTrue(listeners.isEmpty());
+
+        dispatch(listeners);
+        assertEquals(2, calls.size());
+    }
+
+    @Test
+    public void unchangedArray_isReused() {
+        ListenerArray<String> listeners = new ListenerArray<>();
+        listeners.add("a");
+        Object[] array = listeners.getArray();
+        assertSame(array, listeners.getArray());
+        listeners.remove("b");
+        assertSame(array, listeners.getArray());
+    }
+
+    private static void dispatch(ListenerArray<Runnable> listeners) {
+        Object[] array = listeners.getArray();
+        for (int i = 0; i < array.length; i++) {
+            ((Runnable) array[i]).run();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+
+import static org.junit.Assert.*;
+
+/**
+ * 多个滚动view：包装类的创建、缓存和切换
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class MultipleTargetsTest {
+
+    private OverScrollSimulator mSim;
+    private OverScrollSimulator.FakeScrollTarget mFirst;
+    private OverScrollSimulator.FakeScrollTarget mSecond;
+
+    @Before
+    public void setUp() {
+        mSim = new OverScrollSimulator();
+        mSim.layout.setMultipleTargetsEnabled(true);
+        mFirst = mSim.target;
+        mSecond = mSim.addTarget();
+        mSim.attachToWindow();
+    }
+
+    private static Object wrapperOf(OverScrollSimulator.FakeScrollTarget target) {
+        return target.getTag(R.id.osl_scroll_view_wrapper);
+    }
+
+    @Test
+    public void wrapperCreatedOnFirstNestedScroll() {
+        assertTrue(mFirst.isAdapterAttached());
+        assertNull(wrapperOf(mSecond));
+        assertFalse(mSecond.isAdapterAttached());
+
+        mSim.setGestureTarget(mSecond);
+        mSim.touchDown();
+        assertTrue(wrapperOf(mSecond) instanceof OverScrollLayout.ScrollViewWrapper);
+        assertTrue(mSecond.isAdapterAttached());
+        mSim.releaseAndSettle();
+    }
+
+    @Test
+    public void switchDuringSpringBack_snapsPreviousToRestAndDetachesAdapter() {
+        mSim.dragFromTop(-30, 10);
+        mSim.release(0);
+        mSim.frame();
+        assertTrue(mSim.layout.isAnimationRunning());
+        assertTrue(mFirst.getTranslationY() > 0);
+
+        //回弹过程中在另一个滚动view上开始拖动，上一个直接回到原位置，适配器解除绑定
+        mSim.setGestureTarget(mSecond);
+        mSim.touchDown();
+        assertFalse(mSim.layout.isAnimationRunning());
+        assertEquals(0f, mFirst.getTranslationY(), 0f);
+        assertFalse(mFirst.isAdapterAttached());
+        assertTrue(mSecond.isAdapterAttached());
+
+        mSecond.setCanScroll(-1, false);
+        mSim.drag(-30, 10);
+        assertTrue(mSecond.getTranslationY() > 0);
+        assertEquals(0f, mFirst.getTranslationY(), 0f);
+        mSim.releaseAndSettle();
+        assertEquals(0f, mSecond.getTranslationY(), 0f);
+    }
+
+    @Test
+    public void switchBack_reusesCachedWrapper() {
+        mSim.setGestureTarget(mSecond);
+        mSim.touchDown();
+        mSim.release(0);
+        Object wrapper = wrapperOf(mSecond);
+        assertNotNull(wrapper);
+
+        //切换回来再切换过去，用tag上缓存的包装类
+        mSim.setGestureTarget(mFirst);
+        mSim.touchDown();
+        mSim.release(0);
+        assertTrue(mFirst.isAdapterAttached());
+        assertFalse(mSecond.isAdapterAttached());
+        mSim.setGestureTarget(mSecond);
+        mSim.touchDown();
+        mSim.release(0);
+        assertSame(wrapper, wrapperOf(mSecond));
+        assertTrue(mSecond.isAdapterAttached());
+        assertFalse(mFirst.isAdapterAttached());
+    }
+}
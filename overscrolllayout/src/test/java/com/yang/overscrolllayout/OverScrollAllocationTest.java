@@ -0,0 +1,145 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * 拖动、惯性过度滚动、回弹的每一帧、每个嵌套滚动回调都不分配内存
+ *
+ * 用线程分配计数器统计，只在HotSpot上运行。帧由Robolectric推进，推进时钟、分发vsync本身会分配内存，
+ * 所以每一帧先减去{@link OverScrollSimulator#measureFrameOverhead(int)}测得的开销；嵌套滚动回调直接调用OverScrollLayout，不减。
+ * JIT编译、Robolectric重新链接shadow方法偶尔会在某一帧分配内存，脚本是确定的，所以同一个脚本跑多次，
+ * 每一帧取最小值，只有每次都分配才算。
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class OverScrollAllocationTest {
+
+    private static final int OVERHEAD_FRAMES = 10;
+    private static final int WARM_UP_RUNS = 5;
+    private static final int MEASURED_RUNS = 3;
+
+    interface Config {
+        void apply(OverScrollSimulator sim);
+    }
+
+    private static final Config DEFAULT = new Config() {
+        @Override
+        public void apply(OverScrollSimulator sim) {
+        }
+    };
+
+    /**
+     * 打开所有可选功能：监听器、触发距离、合并分发、统计、事件记录、硬件层、弹簧回弹
+     */
+    private static final Config ALL_FEATURES = new Config() {
+        @Override
+        public void apply(OverScrollSimulator sim) {
+            sim.layout.addOnOverScrollListener(new OverScrollLayout.OnOverScrollListener() {
+                @Override
+                public void onOverScroll(OverScrollLayout.Axes axes, int translation, int actualTranslation) {
+                }
+            });
+            sim.layout.addOverScrollThreshold(OverScrollThreshold.ofFraction(OverScrollThreshold.EDGE_TOP, 0.1f, 0.02f,
+                    new OverScrollThreshold.Callback() {
+                        @Override
+                        public void onThresholdCrossed(OverScrollThreshold threshold, boolean reached) {
+                        }
+                    }));
+            //直接在当前线程执行，检查提交任务和取值都不分配对象
+            sim.layout.addOnOverScrollListener(new OverScrollLayout.OnOverScrollListener() {
+                @Override
+                public void onOverScroll(OverScrollLayout.Axes axes, int translation, int actualTranslation) {
+                }
+            }, new Executor() {
+                @Override
+                public void execute(Runnable command) {
+                    command.run();
+                }
+            });
+            sim.layout.addOnOverScrollStateChangedListener(new OverScrollLayout.OnOverScrollStateChangedListener() {
+                @Override
+                public void onOverScrollStateChanged(int state, int edges) {
+                }
+            });
+            sim.layout.setDispatchMode(OverScrollLayout.DISPATCH_MODE_COALESCED);
+            sim.layout.setMetricsEnabled(true);
+            sim.layout.startTrace(64);
+            sim.layout.setUseHardwareLayer(true);
+            sim.layout.setSpringBackMode(OverScrollLayout.SPRING_BACK_MODE_SPRING);
+        }
+    };
+
+    @Test
+    public void dragAndRelease_doesNotAllocate() {
+        assertNoAllocation(DEFAULT, OverScrollSimulator.DRAG_AND_RELEASE);
+        assertNoAllocation(ALL_FEATURES, OverScrollSimulator.DRAG_AND_RELEASE);
+    }
+
+    @Test
+    public void flingIntoEdge_doesNotAllocate() {
+        assertNoAllocation(DEFAULT, OverScrollSimulator.FLING_INTO_EDGE);
+        assertNoAllocation(ALL_FEATURES, OverScrollSimulator.FLING_INTO_EDGE);
+    }
+
+    @Test
+    public void flingWithPredictedEdge_doesNotAllocate() {
+        assertNoAllocation(DEFAULT, OverScrollSimulator.FLING_WITH_PREDICTED_EDGE);
+        assertNoAllocation(ALL_FEATURES, OverScrollSimulator.FLING_WITH_PREDICTED_EDGE);
+    }
+
+    @Test
+    public void interruptedSpringBack_doesNotAllocate() {
+        assertNoAllocation(DEFAULT, OverScrollSimulator.INTERRUPTED_SPRING_BACK);
+        assertNoAllocation(ALL_FEATURES, OverScrollSimulator.INTERRUPTED_SPRING_BACK);
+    }
+
+    private static void assertNoAllocation(Config config, OverScrollSimulator.Script script) {
+        //预热，类加载、第一次手势的懒初始化、JIT编译不计入
+        for (int i = 0; i < WARM_UP_RUNS; i++) {
+            OverScrollSimulator warmUp = new OverScrollSimulator();
+            Assume.assumeTrue("thread allocation counter not supported", warmUp.isAllocationTrackingSupported());
+            config.apply(warmUp);
+            script.run(warmUp);
+        }
+
+        long[] nestedCallbacks = null;
+        long[] frames = null;
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            OverScrollSimulator sim = new OverScrollSimulator();
+            config.apply(sim);
+            long overhead = sim.measureFrameOverhead(OVERHEAD_FRAMES);
+            script.run(sim);
+
+            if (nestedCallbacks == null) {
+                nestedCallbacks = new long[sim.getNestedCallbacks()];
+                frames = new long[sim.getFrames()];
+                Arrays.fill(nestedCallbacks, Long.MAX_VALUE);
+                Arrays.fill(frames, Long.MAX_VALUE);
+            }
+            assertEquals(nestedCallbacks.length, sim.getNestedCallbacks());
+            assertEquals(frames.length, sim.getFrames());
+            for (int i = 0; i < nestedCallbacks.length; i++) {
+                nestedCallbacks[i] = Math.min(nestedCallbacks[i], sim.getNestedCallbackAllocatedBytes(i));
+            }
+            for (int i = 0; i < frames.length; i++) {
+                frames[i] = Math.min(frames[i], sim.getFrameAllocatedBytes(i) - overhead);
+            }
+        }
+
+        for (int i = 0; i < nestedCallbacks.length; i++) {
+            assertTrue("nested scroll callback " + i + " allocated " + nestedCallbacks[i] + " bytes", nestedCallbacks[i] <= 0);
+        }
+        for (int i = 0; i < frames.length; i++) {
+            assertTrue("frame " + i + " allocated " + frames[i] + " bytes", frames[i] <= 0);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 用不同刷新率的虚拟帧时钟驱动衰减模型，轨迹应该一致
+ */
+public class OverScrollDecayTest {
+
+    private static final long START = 123456789L;
+    private static final float VELOCITY = 6000f;
+
+    private static final int[] REFRESH_RATES = {60, 90, 120, 144};
+
+    //参考曲线的采样频率
+    private static final int REFERENCE_RATE = 960;
+
+    @Test
+    public void trajectory_isIndependentOfRefreshRate() {
+        float[] reference = sample(REFERENCE_RATE, REFERENCE_RATE / 2);
+        for (int rate : REFRESH_RATES) {
+            float[] curve = sample(rate, rate / 2);
+            //在每个刷新率的帧时间上和参考曲线按时间插值比较，结束时剩余位移小于0.5px
+            for (int i = 0; i < curve.length; i++) {
+                float expected = interpolate(reference, REFERENCE_RATE, (float) i / rate);
+                assertEquals(rate + "Hz frame " + i, expected, curve[i], 0.6f);
+            }
+        }
+    }
+
+    @Test
+    public void finalOffset_isIndependentOfRefreshRate() {
+        float expected = runToEnd(60);
+        for (int rate : REFRESH_RATES) {
+            assertEquals(rate + "Hz", expected, runToEnd(rate), 1f);
+        }
+        assertEquals(VELOCITY * OverScrollDecay.DEFAULT_TIME_CONSTANT, expected, 1f);
+    }
+
+    @Test
+    public void skippedFrames_catchUp() {
+        OverScrollDecay smooth = new OverScrollDecay();
+        OverScrollDecay janky = new OverScrollDecay();
+        smooth.start(VELOCITY, START);
+        janky.start(VELOCITY, START);
+        long frame = 1000000000L / 120;
+        for (int i = 1; i <= 8; i++) {
+            smooth.update(START + frame * i);
+        }
+        //跳过中间7帧，只收到第8帧
+        janky.update(START + frame * 8);
+        assertEquals(smooth.getOffset(), janky.getOffset(), 0.001f);
+        assertEquals(smooth.getVelocity(), janky.getVelocity(), 0.001f);
+    }
+
+    @Test
+    public void negativeVelocity_isSymmetric() {
+        OverScrollDecay positive = new OverScrollDecay();
+        OverScrollDecay negative = new OverScrollDecay();
+        positive.start(VELOCITY, START);
+        negative.start(-VELOCITY, START);
+        positive.update(START + 20000000L);
+        negative.update(START + 20000000L);
+        assertEquals(-positive.getOffset(), negative.getOffset(), 0.001f);
+    }
+
+    @Test
+    public void frameBeforeStart_isClamped() {
+        OverScrollDecay decay = new OverScrollDecay();
+        decay.start(VELOCITY, START);
+        assertTrue(decay.update(START - 5000000L));
+        assertEquals(0, decay.getOffset(), 0);
+        assertEquals(VELOCITY, decay.getVelocity(), 0);
+    }
+
+    private static float[] sample(int rate, int frames) {
+        OverScrollDecay decay = new OverScrollDecay();
+        decay.start(VELOCITY, START);
+        float[] curve = new float[frames];
+        for (int i = 0; i < frames; i++) {
+            decay.update(START + frameTime(rate, i));
+            curve[i] = decay.getOffset();
+        }
+        return curve;
+    }
+
+    private static float runToEnd(int rate) {
+        OverScrollDecay decay = new OverScrollDecay();
+        decay.start(VELOCITY, START);
+        int i = 0;
+        while (decay.update(START + frameTime(rate, ++i))) {
+            assertTrue("too many frames at " + rate + "Hz", i < rate * 10);
+        }
+        return decay.getOffset();
+    }
+
+    private static long frameTime(int rate, int frame) {
+        return frame * 1000000000L / rate;
+    }
+
+    private static float interpolate(float[] curve, int rate, float seconds) {
+        float position = seconds * rate;
+        int i = (int) position;
+        if (i >= curve.length - 1) {
+            return curve[curve.length - 1];
+        }
+        return curve[i] + (curve[i + 1] - curve[i]) * (position - i);
+    }
+}
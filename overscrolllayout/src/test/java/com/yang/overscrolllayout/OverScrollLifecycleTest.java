@@ -0,0 +1,212 @@
+package com.yang.overscrolllayout;
+
+import android.app.Activity;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * detach、不可见时动画的取消、暂停和恢复
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class OverScrollLifecycleTest {
+
+    private static final int FRAMES_AFTER_DETACH = 60;
+
+    /**
+     * 记录监听器回调次数，detach之后还有回调说明还有帧回调在执行
+     */
+    private static final class CountingListener implements OverScrollLayout.OnOverScrollListener {
+        int count = 0;
+
+        @Override
+        public void onOverScroll(OverScrollLayout.Axes axes, int translation, int actualTranslation) {
+            count++;
+        }
+    }
+
+    /**
+     * 开启性能统计和合并分发，detach时这两种帧回调也要移除
+     */
+    private static OverScrollSimulator newSimulator() {
+        OverScrollSimulator sim = new OverScrollSimulator();
+        sim.layout.setMetricsEnabled(true);
+        sim.layout.setDispatchMode(OverScrollLayout.DISPATCH_MODE_COALESCED);
+        return sim;
+    }
+
+    @Test
+    public void detachDuringDrag_removesPendingCallbacks() {
+        OverScrollSimulator sim = newSimulator();
+        CountingListener listener = new CountingListener();
+        sim.layout.addOnOverScrollListener(listener);
+        sim.attachToWindow();
+
+        sim.dragFromTop(-30, 10);
+        //同一帧内还没有执行帧回调
+        sim.moves(-10, 2);
+        assertTrue(sim.layout.isMetricsFrameScheduled());
+        assertTrue(sim.layout.isDispatchScheduled());
+        assertTrue(sim.target.getTranslationY() > 0);
+
+        sim.detachFromWindow();
+        assertDetachedAtRest(sim, listener);
+    }
+
+    @Test
+    public void detachDuringSpringBack_cancelsAndSnapsToRest() {
+        OverScrollSimulator sim = newSimulator();
+        CountingListener listener = new CountingListener();
+        sim.layout.addOnOverScrollListener(listener);
+        sim.attachToWindow();
+        assertTrue(sim.target.isAdapterAttached());
+
+        sim.target.setCanScroll(-1, false);
+        sim.touchDown();
+        sim.drag(-30, 20);
+        sim.release(0);
+        sim.frame();
+        sim.frame();
+        assertTrue(sim.layout.isAnimationRunning());
+        assertTrue(sim.layout.isAnimationFrameScheduled());
+        assertTrue(sim.target.getTranslationY() > 0);
+
+        sim.detachFromWindow();
+        assertDetachedAtRest(sim, listener);
+    }
+
+    @Test
+    public void detachDuringFlingOverScroll_cancelsAndSnapsToRest() {
+        OverScrollSimulator sim = newSimulator();
+        CountingListener listener = new CountingListener();
+        sim.layout.addOnOverScrollListener(listener);
+        sim.attachToWindow();
+
+        sim.touchDown();
+        sim.drag(40, 5);
+        assertTrue(sim.release(8000));
+        sim.flingToEdge(60, 8);
+        sim.frame();
+        assertTrue(sim.layout.isAnimationRunning());
+        assertTrue(sim.layout.isAnimationFrameScheduled());
+        assertTrue(sim.target.getTranslationY() < 0);
+
+        sim.detachFromWindow();
+        assertDetachedAtRest(sim, listener);
+    }
+
+    @Test
+    public void reattach_overScrollsAgain() {
+        OverScrollSimulator sim = newSimulator();
+        Activity activity = sim.attachToWindow();
+        sim.target.setCanScroll(-1, false);
+        sim.touchDown();
+        sim.drag(-30, 10);
+        sim.release(0);
+        sim.frame();
+        sim.detachFromWindow();
+
+        sim.reattachToWindow(activity);
+        assertTrue(sim.target.isAdapterAttached());
+        sim.resetStats();
+        sim.touchDown();
+        sim.drag(-30, 10);
+        assertTrue(sim.target.getTranslationY() > 0);
+        sim.release(0);
+        sim.runUntilIdle(OverScrollSimulator.MAX_FRAMES);
+        assertEquals(0f, sim.target.getTranslationY(), 0f);
+    }
+
+    @Test
+    public void invisible_pausesAndResumesFromCurrentPosition() {
+        OverScrollSimulator sim = newSimulator();
+        List<String> states = sim.recordStates();
+        sim.attachToWindow();
+        sim.target.setCanScroll(-1, false);
+        sim.touchDown();
+        sim.drag(-30, 20);
+        sim.release(0);
+        for (int i = 0; i < 5; i++) {
+            sim.frame();
+        }
+
+        sim.layout.setVisibility(View.INVISIBLE);
+        float paused = sim.target.getTranslationY();
+        assertTrue(paused > 0);
+        assertFalse(sim.layout.isAnimationRunning());
+        assertFalse(sim.layout.isAnimationFrameScheduled());
+        //暂停时内容view不在原位置，不是IDLE
+        assertEquals(OverScrollLayout.OVER_SCROLL_STATE_SETTLING, sim.layout.getOverScrollState());
+        assertEquals(OverScrollLayout.EDGE_TOP, sim.layout.getOverScrollEdges());
+        for (int i = 0; i < 30; i++) {
+            sim.frame();
+        }
+        assertEquals(paused, sim.target.getTranslationY(), 0f);
+
+        //从暂停的位置继续回弹，不跳变
+        sim.layout.setVisibility(View.VISIBLE);
+        assertTrue(sim.layout.isAnimationRunning());
+        sim.frame();
+        float resumed = sim.target.getTranslationY();
+        assertTrue(resumed > 0 && resumed < paused);
+        sim.runUntilIdle(OverScrollSimulator.MAX_FRAMES);
+        assertEquals(0f, sim.target.getTranslationY(), 0f);
+        assertEquals(Arrays.asList(
+                OverScrollSimulator.state(OverScrollLayout.OVER_SCROLL_STATE_DRAGGING, OverScrollLayout.EDGE_TOP),
+                OverScrollSimulator.state(OverScrollLayout.OVER_SCROLL_STATE_SETTLING, OverScrollLayout.EDGE_TOP),
+                OverScrollSimulator.state(OverScrollLayout.OVER_SCROLL_STATE_IDLE, 0)), states);
+    }
+
+    @Test
+    public void gone_pausesInSettlingState() {
+        OverScrollSimulator sim = newSimulator();
+        sim.attachToWindow();
+        sim.dragFromTop(-30, 20);
+        sim.release(0);
+        sim.frames(5);
+
+        sim.layout.setVisibility(View.GONE);
+        assertTrue(sim.target.getTranslationY() > 0);
+        assertFalse(sim.layout.isAnimationRunning());
+        assertEquals(OverScrollLayout.OVER_SCROLL_STATE_SETTLING, sim.layout.getOverScrollState());
+
+        sim.layout.setVisibility(View.VISIBLE);
+        sim.runUntilIdle(OverScrollSimulator.MAX_FRAMES);
+        assertEquals(OverScrollLayout.OVER_SCROLL_STATE_IDLE, sim.layout.getOverScrollState());
+
+        //暂停期间detach，直接回到原位置
+        sim.dragFromTop(-30, 20);
+        sim.release(0);
+        sim.frames(5);
+        sim.layout.setVisibility(View.GONE);
+        sim.detachFromWindow();
+        assertEquals(0f, sim.target.getTranslationY(), 0f);
+        assertEquals(OverScrollLayout.OVER_SCROLL_STATE_IDLE, sim.layout.getOverScrollState());
+    }
+
+    private static void assertDetachedAtRest(OverScrollSimulator sim, CountingListener listener) {
+        assertFalse(sim.layout.isAnimationRunning());
+        assertEquals(0f, sim.target.getTranslationY(), 0f);
+        assertFalse(sim.target.isAdapterAttached());
+        //没有留在Choreographer上的帧回调
+        assertFalse(sim.layout.isAnimationFrameScheduled());
+        assertFalse(sim.layout.isMetricsFrameScheduled());
+        assertFalse(sim.layout.isDispatchScheduled());
+
+        int count = listener.count;
+        for (int i = 0; i < FRAMES_AFTER_DETACH; i++) {
+            sim.frame();
+        }
+        assertEquals("frame callback survived detach", count, listener.count);
+        assertEquals(0f, sim.target.getTranslationY(), 0f);
+    }
+}
@@ -0,0 +1,141 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 性能指标的分桶、百分位数、每帧写入次数和快照测试
+ */
+public class OverScrollMetricsTest {
+
+    private static final int METRIC = OverScrollMetrics.ANIMATION_FRAME;
+
+    //1ms在桶20 [2^19, 2^20)，10ms在桶24 [2^23, 2^24)，50ms在桶26 [2^25, 2^26)
+    private static final long FAST = 1_000_000L;
+    private static final long SLOW = 10_000_000L;
+    private static final long JANK = 50_000_000L;
+
+    /**
+     * 90帧1ms、9帧10ms、1帧50ms
+     */
+    private static OverScrollMetrics recordFrames() {
+        OverScrollMetrics metrics = new OverScrollMetrics();
+        for (int i = 0; i < 90; i++) {
+            metrics.record(METRIC, FAST);
+        }
+        for (int i = 0; i < 9; i++) {
+            metrics.record(METRIC, SLOW);
+        }
+        metrics.record(METRIC, JANK);
+        return metrics;
+    }
+
+    @Test
+    public void bucketOf_powersOfTwo() {
+        assertEquals(0, OverScrollMetrics.bucketOf(0));
+        assertEquals(1, OverScrollMetrics.bucketOf(1));
+        assertEquals(2, OverScrollMetrics.bucketOf(2));
+        assertEquals(2, OverScrollMetrics.bucketOf(3));
+        assertEquals(3, OverScrollMetrics.bucketOf(4));
+        assertEquals(20, OverScrollMetrics.bucketOf(FAST));
+        assertEquals(24, OverScrollMetrics.bucketOf(SLOW));
+        assertEquals(26, OverScrollMetrics.bucketOf(JANK));
+        //超出范围的值都在最后一个桶
+        assertEquals(OverScrollMetrics.BUCKET_COUNT - 1, OverScrollMetrics.bucketOf(1L << 40));
+        assertEquals(OverScrollMetrics.BUCKET_COUNT - 1, OverScrollMetrics.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void record_countsSumMaxAndBuckets() {
+        OverScrollMetrics metrics = recordFrames();
+        assertEquals(100, metrics.getCount(METRIC));
+        assertEquals(90 * FAST + 9 * SLOW + JANK, metrics.getSum(METRIC));
+        assertEquals(JANK, metrics.getMax(METRIC));
+        assertEquals((90 * FAST + 9 * SLOW + JANK) / 100, metrics.getMean(METRIC));
+        assertEquals(90, metrics.getBucketCount(METRIC, 20));
+        assertEquals(9, metrics.getBucketCount(METRIC, 24));
+        assertEquals(1, metrics.getBucketCount(METRIC, 26));
+        long total = 0;
+        for (int i = 0; i < OverScrollMetrics.BUCKET_COUNT; i++) {
+            total += metrics.getBucketCount(METRIC, i);
+        }
+        assertEquals(100, total);
+        //其他指标不受影响
+        assertEquals(0, metrics.getCount(OverScrollMetrics.NESTED_SCROLL));
+    }
+
+    @Test
+    public void record_negativeValueCountedAsZero() {
+        OverScrollMetrics metrics = new OverScrollMetrics();
+        metrics.record(METRIC, -5);
+        assertEquals(1, metrics.getBucketCount(METRIC, 0));
+        assertEquals(0, metrics.getSum(METRIC));
+    }
+
+    @Test
+    public void percentile_returnsBucketUpperBoundCappedByMax() {
+        OverScrollMetrics metrics = recordFrames();
+        assertEquals(OverScrollMetrics.getBucketUpperBound(20), metrics.getPercentile(METRIC, 0.5f));
+        assertEquals(OverScrollMetrics.getBucketUpperBound(20), metrics.getPercentile(METRIC, 0.9f));
+        assertEquals(OverScrollMetrics.getBucketUpperBound(24), metrics.getPercentile(METRIC, 0.95f));
+        assertEquals(OverScrollMetrics.getBucketUpperBound(24), metrics.getPercentile(METRIC, 0.99f));
+        //最慢的一帧，桶的上界大于最大值时返回最大值
+        assertEquals(JANK, metrics.getPercentile(METRIC, 1f));
+        assertEquals(0, new OverScrollMetrics().getPercentile(METRIC, 0.5f));
+    }
+
+    @Test
+    public void endFrame_recordsWritesOfFramesWithWrites() {
+        OverScrollMetrics metrics = new OverScrollMetrics();
+        assertFalse(metrics.hasFrameWrites());
+        metrics.onTranslationWrite();
+        metrics.onTranslationWrite();
+        metrics.onTranslationWrite();
+        assertTrue(metrics.hasFrameWrites());
+        metrics.endFrame();
+        assertFalse(metrics.hasFrameWrites());
+        //没有写入的帧不统计
+        metrics.endFrame();
+        metrics.onTranslationWrite();
+        metrics.endFrame();
+
+        int writes = OverScrollMetrics.TRANSLATION_WRITES_PER_FRAME;
+        assertEquals(2, metrics.getCount(writes));
+        assertEquals(4, metrics.getSum(writes));
+        assertEquals(3, metrics.getMax(writes));
+        assertEquals(1, metrics.getBucketCount(writes, 1));
+        assertEquals(1, metrics.getBucketCount(writes, 2));
+    }
+
+    @Test
+    public void copyTo_snapshotIsIndependent() {
+        OverScrollMetrics metrics = recordFrames();
+        metrics.onTranslationWrite();
+        //复用的快照对象，原有的数据被覆盖
+        OverScrollMetrics snapshot = new OverScrollMetrics();
+        snapshot.record(OverScrollMetrics.NESTED_SCROLL, 123);
+        metrics.copyTo(snapshot);
+
+        assertEquals(0, snapshot.getCount(OverScrollMetrics.NESTED_SCROLL));
+        assertEquals(100, snapshot.getCount(METRIC));
+        assertEquals(metrics.getSum(METRIC), snapshot.getSum(METRIC));
+        assertEquals(JANK, snapshot.getMax(METRIC));
+        assertEquals(9, snapshot.getBucketCount(METRIC, 24));
+        assertEquals(metrics.getPercentile(METRIC, 0.95f), snapshot.getPercentile(METRIC, 0.95f));
+        assertTrue(snapshot.hasFrameWrites());
+
+        //快照之后的记录不影响快照
+        metrics.record(METRIC, JANK);
+        metrics.endFrame();
+        assertEquals(100, snapshot.getCount(METRIC));
+        assertEquals(1, snapshot.getBucketCount(METRIC, 26));
+        assertEquals(0, snapshot.getCount(OverScrollMetrics.TRANSLATION_WRITES_PER_FRAME));
+
+        metrics.reset();
+        assertEquals(0, metrics.getCount(METRIC));
+        assertEquals(0, metrics.getBucketCount(METRIC, 20));
+        assertFalse(metrics.hasFrameWrites());
+        assertEquals(100, snapshot.getCount(METRIC));
+    }
+}
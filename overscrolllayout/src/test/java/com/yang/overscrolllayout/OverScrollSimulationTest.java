@@ -0,0 +1,136 @@
+package com.yang.overscrolllayout;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * 用虚拟时钟模拟手势，检查帧数、回调次数、分配的内存不超过预算
+ *
+ * 预算在overscroll_budgets.properties中，性能有意变化时同时修改预算。
+ * 每个脚本先在另一个实例上跑一遍预热（类加载、JIT），再在新的实例上统计。
+ * CPU时间受JIT、GC和CI机器负载影响，不设预算，只在超出预算时和其他统计一起报告。
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class OverScrollSimulationTest {
+
+    private static final int MAX_FRAMES = OverScrollSimulator.MAX_FRAMES;
+
+    private static final Properties sBudgets = new Properties();
+
+    @BeforeClass
+    public static void loadBudgets() throws IOException {
+        try (InputStream in = OverScrollSimulationTest.class.getResourceAsStream("overscroll_budgets.properties")) {
+            assertNotNull("overscroll_budgets.properties not found", in);
+            sBudgets.load(in);
+        }
+    }
+
+    @Test
+    public void dragAndRelease() {
+        OverScrollSimulator sim = measure("dragAndRelease", OverScrollSimulator.DRAG_AND_RELEASE);
+        List<Float> translations = sim.frameTranslations;
+
+        //拖动过程中位移单调增加，有阻尼所以小于拖动的距离
+        for (int i = 1; i < 20; i++) {
+            assertTrue(translations.get(i) > translations.get(i - 1));
+        }
+        assertTrue(translations.get(19) < 30 * 20);
+        //回弹过程中单调减小，最后回到原位置
+        for (int i = 20; i < translations.size(); i++) {
+            assertTrue(translations.get(i) <= translations.get(i - 1));
+        }
+        assertEquals(0f, translations.get(translations.size() - 1), 0f);
+    }
+
+    @Test
+    public void flingIntoEdge() {
+        OverScrollSimulator sim = measure("flingIntoEdge", OverScrollSimulator.FLING_INTO_EDGE);
+        float min = 0;
+        for (float translation : sim.frameTranslations) {
+            assertTrue(translation <= 0);
+            min = Math.min(min, translation);
+        }
+        //到达底部后向上过度滚动
+        assertTrue(min < 0);
+        assertEquals(0f, sim.target.getTranslationY(), 0f);
+    }
+
+    @Test
+    public void flingWithPredictedEdge() {
+        OverScrollSimulator sim = measure("flingWithPredictedEdge", OverScrollSimulator.FLING_WITH_PREDICTED_EDGE);
+        for (float translation : sim.frameTranslations) {
+            assertTrue(translation <= 0);
+        }
+        assertEquals(0f, sim.target.getTranslationY(), 0f);
+
+        //预测了到达边界的时间，子view停在边界的那一帧就开始过度滚动
+        assertTrue(flingToEdge(OverScrollSimulator.EDGE_DISTANCE) < 0);
+        //不知道到底部的距离时，从下一帧才开始
+        assertEquals(0f, flingToEdge(-1), 0f);
+    }
+
+    /**
+     * @return 子view到达边界的那一帧内容view的位移
+     */
+    private static float flingToEdge(int scrollRemaining) {
+        OverScrollSimulator sim = new OverScrollSimulator();
+        sim.touchDown();
+        sim.drag(40, 5);
+        sim.target.setScrollRemaining(scrollRemaining);
+        assertTrue(sim.release(8000));
+        float translation = sim.flingWithScroller(8000, OverScrollSimulator.EDGE_DISTANCE);
+        sim.runUntilIdle(MAX_FRAMES);
+        return translation;
+    }
+
+    @Test
+    public void interruptedSpringBack() {
+        OverScrollSimulator sim = measure("interruptedSpringBack", OverScrollSimulator.INTERRUPTED_SPRING_BACK);
+        List<Float> translations = sim.frameTranslations;
+        //回弹了5帧后按下，位移从打断的位置继续，不跳变
+        float interrupted = translations.get(24);
+        assertTrue(interrupted > 0 && interrupted < translations.get(19));
+        assertTrue(translations.get(25) > interrupted);
+        assertEquals(0f, sim.target.getTranslationY(), 0f);
+    }
+
+
+    private static OverScrollSimulator measure(String name, OverScrollSimulator.Script script) {
+        //预热
+        script.run(new OverScrollSimulator());
+
+        OverScrollSimulator sim = new OverScrollSimulator();
+        sim.resetStats();
+        script.run(sim);
+
+        String stats = " (frames=" + sim.getFrames()
+                + " callbacks=" + sim.getCallbacks()
+                + " totalCpuNanos=" + sim.getTotalCpuNanos()
+                + " maxCpuNanos=" + sim.getMaxCpuNanos()
+                + " allocatedBytes=" + sim.getAllocatedBytes() + ")";
+        assertBudget(name + ".frames", sim.getFrames(), stats);
+        assertBudget(name + ".callbacks", sim.getCallbacks(), stats);
+        if (sim.isAllocationTrackingSupported()) {
+            assertBudget(name + ".allocatedBytes", sim.getAllocatedBytes(), stats);
+        }
+        return sim;
+    }
+
+    private static void assertBudget(String key, long actual, String stats) {
+        String value = sBudgets.getProperty(key);
+        assertNotNull("missing budget: " + key + stats, value);
+        long budget = Long.parseLong(value.trim());
+        assertTrue(key + " = " + actual + " exceeds budget " + budget + stats, actual <= budget);
+    }
+}
@@ -0,0 +1,692 @@
+package com.yang.overscrolllayout;
+
+import android.app.Activity;
+import android.content.Context;
+import android.view.Choreographer;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.OverScroller;
+
+import androidx.annotation.NonNull;
+import androidx.core.view.ViewCompat;
+
+import org.robolectric.Robolectric;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowChoreographer;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.util.ReflectionHelpers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 虚拟时钟下的OverScrollLayout模拟器，用于性能回归测试
+ *
+ * 主线程Looper暂停（LooperMode.PAUSED），按帧推进Robolectric的虚拟时钟，Choreographer的帧时间、
+ * AnimationUtils.currentAnimationTimeMillis都来自这个时钟，同样的手势脚本每次得到同样的结果。
+ * 手势直接调用NestedScrollingParent3的回调，调用顺序和RecyclerView一致。
+ *
+ * 记录每一帧结束时内容view的位移，以及每次回调（嵌套滚动回调、帧）的CPU时间和分配的内存，
+ * 统计结果在回调结束后才写入，不计入回调本身。
+ */
+final class OverScrollSimulator {
+
+    static final int WIDTH = 1080;
+    static final int HEIGHT = 1920;
+
+    static final long FRAME_INTERVAL_MS = 16;
+
+    //runUntilIdle最多推进的帧数
+    static final int MAX_FRAMES = 600;
+
+    /**
+     * 手势脚本，同一个脚本在不同的实例上得到同样的结果
+     */
+    interface Script {
+        void run(OverScrollSimulator sim);
+    }
+
+    /**
+     * 在顶部向下拖动，松手后回弹
+     */
+    static final Script DRAG_AND_RELEASE = new Script() {
+        @Override
+        public void run(OverScrollSimulator sim) {
+            sim.dragFromTop(-30, 20);
+            sim.releaseAndSettle();
+        }
+    };
+
+    /**
+     * 向上拖动后快速松手，子view惯性滚动到底部，过度滚动后回弹
+     */
+    static final Script FLING_INTO_EDGE = new Script() {
+        @Override
+        public void run(OverScrollSimulator sim) {
+            sim.touchDown();
+            sim.drag(40, 5);
+            sim.releaseWithChildFling(8000);
+            sim.flingToEdge(60, 8);
+            sim.runUntilIdle(MAX_FRAMES);
+        }
+    };
+
+    /**
+     * 子view到底部的距离，{@link #FLING_WITH_PREDICTED_EDGE}
+     */
+    static final int EDGE_DISTANCE = 2000;
+
+    /**
+     * 向上拖动后快速松手，子view按真实的惯性曲线滚动到底部，松手时适配器知道到底部的距离，可以预测到达边界的时间
+     */
+    static final Script FLING_WITH_PREDICTED_EDGE = new Script() {
+        @Override
+        public void run(OverScrollSimulator sim) {
+            sim.touchDown();
+            sim.drag(40, 5);
+            sim.target.setScrollRemaining(EDGE_DISTANCE);
+            sim.releaseWithChildFling(8000);
+            sim.flingWithScroller(8000, EDGE_DISTANCE);
+            sim.runUntilIdle(MAX_FRAMES);
+        }
+    };
+
+    /**
+     * 回弹过程中再次按下拖动，然后松手
+     */
+    static final Script INTERRUPTED_SPRING_BACK = new Script() {
+        @Override
+        public void run(OverScrollSimulator sim) {
+            sim.dragFromTop(-30, 20);
+            sim.release(0);
+            sim.frames(5);
+            sim.touchDown();
+            sim.drag(-10, 10);
+            sim.releaseAndSettle();
+        }
+    };
+
+    final OverScrollLayout layout;
+    final FakeScrollTarget target;
+
+    //手势作用的滚动view，默认是target
+    private FakeScrollTarget mGestureTarget;
+    //嵌套滚动的坐标轴
+    private int mNestedScrollAxes = ViewCompat.SCROLL_AXIS_VERTICAL;
+
+    //每一帧结束时内容view的translationY
+    final List<Float> frameTranslations = new ArrayList<>();
+
+    private final ThreadMXBean mThreadMXBean = ManagementFactory.getThreadMXBean();
+    private final com.sun.management.ThreadMXBean mAllocationMXBean;
+
+    private final int[] mConsumed = new int[2];
+
+    //每一帧、每个嵌套滚动回调分配的内存
+    private long[] mFrameAllocatedBytes = new long[256];
+    private long[] mNestedCallbackAllocatedBytes = new long[256];
+
+    private int mFrames = 0;
+    private int mCallbacks = 0;
+    private int mNestedCallbacks = 0;
+    private long mTotalCpuNanos = 0;
+    private long mMaxCpuNanos = 0;
+    private long mAllocatedBytes = 0;
+
+    //当前测量的回调开始时的CPU时间和分配的内存
+    private long mStartCpuNanos;
+    private long mStartAllocatedBytes;
+
+    OverScrollSimulator() {
+        ShadowLooper.pauseMainLooper();
+        //PAUSED模式下默认在postFrameCallback时同步推进时钟并执行帧，设置延迟后帧回调在时钟推进到下一帧时才执行
+        ShadowChoreographer.setPostFrameCallbackDelay((int) FRAME_INTERVAL_MS);
+
+        Context context = RuntimeEnvironment.getApplication();
+        layout = new OverScrollLayout(context);
+        target = new FakeScrollTarget(context);
+        mGestureTarget = target;
+        layout.addScrollTargetAdapterFactory(new ScrollTargetAdapter.Factory() {
+            @Override
+            public boolean isScrollTarget(@NonNull View view) {
+                return view instanceof FakeScrollTarget;
+            }
+
+            @NonNull
+            @Override
+            public ScrollTargetAdapter create(@NonNull View view) {
+                return (FakeScrollTarget) view;
+            }
+        });
+        layout.addView(target, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        layout.setScrollView(target);
+        resize(WIDTH, HEIGHT);
+
+        //HotSpot才支持统计线程分配的内存
+        mAllocationMXBean = mThreadMXBean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) mThreadMXBean).isThreadAllocatedMemorySupported()
+                ? (com.sun.management.ThreadMXBean) mThreadMXBean : null;
+    }
+
+    /**
+     * 把OverScrollLayout设置为一个Activity的内容，attach到窗口上
+     */
+    Activity attachToWindow() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        activity.setContentView(layout);
+        //Robolectric没有把窗口设置为可见，getWindowVisibility()一直是GONE，这里通过ViewRootImpl设置
+        ReflectionHelpers.callInstanceMethod(layout.getRootView().getParent(), "dispatchAppVisibility",
+                ReflectionHelpers.ClassParameter.from(boolean.class, true));
+        frame();
+        return activity;
+    }
+
+    /**
+     * 从窗口上移除OverScrollLayout
+     */
+    void detachFromWindow() {
+        ((ViewGroup) layout.getParent()).removeView(layout);
+    }
+
+    /**
+     * 重新attach到{@link #attachToWindow()}使用的窗口上
+     */
+    void reattachToWindow(Activity activity) {
+        activity.setContentView(layout);
+        frame();
+    }
+
+    /**
+     * 再添加一个滚动view，和target一样大，用于多个滚动view的测试
+     */
+    FakeScrollTarget addTarget() {
+        FakeScrollTarget scrollTarget = new FakeScrollTarget(layout.getContext());
+        layout.addView(scrollTarget, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        resize(WIDTH, HEIGHT);
+        return scrollTarget;
+    }
+
+    /**
+     * 按新的大小重新measure、layout
+     */
+    void resize(int width, int height) {
+        layout.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        layout.layout(0, 0, width, height);
+    }
+
+    /**
+     * 之后的手势作用在scrollTarget上
+     */
+    void setGestureTarget(FakeScrollTarget scrollTarget) {
+        mGestureTarget = scrollTarget;
+    }
+
+    /**
+     * 设置过度滚动的方向，之后的嵌套滚动使用对应的坐标轴
+     */
+    void setAxes(OverScrollLayout.Axes axes) {
+        layout.setAxes(axes);
+        mNestedScrollAxes = axes.getNestedScrollAxes();
+    }
+
+    /**
+     * 添加一个监听器，记录每次一维回调的actualTranslation
+     */
+    List<Float> recordOverScroll() {
+        final List<Float> values = new ArrayList<>();
+        layout.addOnOverScrollListener(new OverScrollLayout.OnOverScrollListener() {
+            @Override
+            public void onOverScroll(OverScrollLayout.Axes axes, int translation, int actualTranslation) {
+            }
+
+            @Override
+            public void onOverScroll(OverScrollLayout.Axes axes, float translation, float actualTranslation) {
+                values.add(actualTranslation);
+            }
+        });
+        return values;
+    }
+
+    /**
+     * 添加一个监听器，记录每次状态变化，格式见{@link #state(int, int)}
+     */
+    List<String> recordStates() {
+        final List<String> states = new ArrayList<>();
+        layout.addOnOverScrollStateChangedListener(new OverScrollLayout.OnOverScrollStateChangedListener() {
+            @Override
+            public void onOverScrollStateChanged(int state, int edges) {
+                states.add(state(state, edges));
+            }
+        });
+        return states;
+    }
+
+    static String state(int state, int edges) {
+        return state + ":" + edges;
+    }
+
+    /**
+     * 手指按下，开始嵌套滚动
+     */
+    void touchDown() {
+        begin();
+        boolean accepted = layout.onStartNestedScroll(mGestureTarget, mGestureTarget, mNestedScrollAxes, ViewCompat.TYPE_TOUCH);
+        if (accepted) {
+            layout.onNestedScrollAccepted(mGestureTarget, mGestureTarget, mNestedScrollAxes, ViewCompat.TYPE_TOUCH);
+        }
+        endNestedCallback();
+        if (!accepted) {
+            throw new IllegalStateException("nested scroll not accepted");
+        }
+    }
+
+    /**
+     * 拖动，每帧一个move事件
+     *
+     * @param dy 每个move事件的滚动距离，dy &lt; 0 手指向下滑动
+     * @param count move事件的个数
+     */
+    void drag(int dy, int count) {
+        drag(0, dy, count);
+    }
+
+    /**
+     * 滚动view已经在顶部，按下后向下拖动，每帧一个move事件
+     *
+     * @param dy 每个move事件的滚动距离，dy &lt; 0
+     * @param count move事件的个数
+     */
+    void dragFromTop(int dy, int count) {
+        mGestureTarget.setCanScroll(-1, false);
+        touchDown();
+        drag(dy, count);
+    }
+
+    /**
+     * 同一帧内的多个move事件（高采样率的触摸），不推进帧
+     *
+     * @param dy 每个move事件的滚动距离，dy &lt; 0 手指向下滑动
+     * @param count move事件的个数
+     */
+    void moves(int dy, int count) {
+        for (int i = 0; i < count; i++) {
+            scroll(0, dy, ViewCompat.TYPE_TOUCH);
+        }
+    }
+
+    /**
+     * 两个方向同时拖动，每帧一个move事件
+     *
+     * @param dx 每个move事件水平方向的滚动距离，dx &lt; 0 手指向右滑动
+     * @param dy 每个move事件竖直方向的滚动距离，dy &lt; 0 手指向下滑动
+     * @param count move事件的个数
+     */
+    void drag(int dx, int dy, int count) {
+        for (int i = 0; i < count; i++) {
+            scroll(dx, dy, ViewCompat.TYPE_TOUCH);
+            frame();
+        }
+    }
+
+    /**
+     * 手指抬起。和RecyclerView一样，先分发fling，再结束触摸的嵌套滚动
+     *
+     * @param velocityY 内容滚动方向的速度，单位px/s
+     * @return 子view是否开始fling
+     */
+    boolean release(float velocityY) {
+        begin();
+        boolean childFling = false;
+        if (!layout.onNestedPreFling(mGestureTarget, 0, velocityY)) {
+            boolean canScroll = mGestureTarget.canScrollVertically(velocityY > 0 ? 1 : -1);
+            layout.onNestedFling(mGestureTarget, 0, velocityY, canScroll);
+            if (canScroll && layout.onStartNestedScroll(mGestureTarget, mGestureTarget, mNestedScrollAxes, ViewCompat.TYPE_NON_TOUCH)) {
+                layout.onNestedScrollAccepted(mGestureTarget, mGestureTarget, mNestedScrollAxes, ViewCompat.TYPE_NON_TOUCH);
+                childFling = true;
+            }
+        }
+        layout.onStopNestedScroll(mGestureTarget, ViewCompat.TYPE_TOUCH);
+        endNestedCallback();
+        return childFling;
+    }
+
+    /**
+     * 快速松手，子view必须开始fling
+     */
+    void releaseWithChildFling(float velocityY) {
+        if (!release(velocityY)) {
+            throw new IllegalStateException("child fling expected");
+        }
+    }
+
+    /**
+     * 松手后推进帧，直到回弹结束
+     */
+    void releaseAndSettle() {
+        release(0);
+        runUntilIdle(MAX_FRAMES);
+    }
+
+    /**
+     * 子view惯性滚动count帧后到达边界，剩余的滚动距离交给父view，然后结束惯性的嵌套滚动
+     *
+     * @param dy 每一帧子view的滚动距离
+     */
+    void flingToEdge(int dy, int count) {
+        for (int i = 0; i < count; i++) {
+            scroll(0, dy, ViewCompat.TYPE_NON_TOUCH);
+            frame();
+        }
+        mGestureTarget.setCanScroll(dy > 0 ? 1 : -1, false);
+        scroll(0, dy, ViewCompat.TYPE_NON_TOUCH);
+        begin();
+        layout.onStopNestedScroll(mGestureTarget, ViewCompat.TYPE_NON_TOUCH);
+        endNestedCallback();
+    }
+
+    /**
+     * 子view用OverScroller按真实的惯性曲线滚动，滚过remaining后到达底部，剩余的滚动距离交给父view，
+     * 然后结束惯性的嵌套滚动。和{@link #release(float)}在同一时刻开始
+     *
+     * @param velocityY 同{@link #release(float)}
+     * @param remaining 到底部的距离，需要先通过{@link FakeScrollTarget#setScrollRemaining(int)}告诉适配器
+     * @return 子view到达边界的那一帧结束时内容view的位移
+     */
+    float flingWithScroller(float velocityY, int remaining) {
+        OverScroller scroller = new OverScroller(layout.getContext());
+        scroller.fling(0, 0, 0, (int) velocityY, 0, 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        int scrolled = 0;
+        while (true) {
+            frame();
+            if (!scroller.computeScrollOffset()) {
+                throw new IllegalStateException("fling finished before reaching the edge");
+            }
+            int dy = scroller.getCurrY() - scrolled;
+            int childConsumed = Math.min(dy, remaining - scrolled);
+            scrolled += childConsumed;
+            if (scrolled == remaining) {
+                mGestureTarget.setCanScroll(1, false);
+            }
+            begin();
+            mConsumed[0] = 0;
+            mConsumed[1] = 0;
+            layout.onNestedScroll(mGestureTarget, 0, childConsumed, 0, dy - childConsumed, ViewCompat.TYPE_NON_TOUCH, mConsumed);
+            endNestedCallback();
+            if (dy != childConsumed) {
+                break;
+            }
+        }
+        float translation = mGestureTarget.getTranslationY();
+        begin();
+        layout.onStopNestedScroll(mGestureTarget, ViewCompat.TYPE_NON_TOUCH);
+        endNestedCallback();
+        frame();
+        return translation;
+    }
+
+    /**
+     * 推进帧，直到动画结束并且内容view回到原位置
+     *
+     * @return 推进的帧数
+     */
+    int runUntilIdle(int maxFrames) {
+        int frames = 0;
+        while (layout.isAnimationRunning() || mGestureTarget.getTranslationY() != 0) {
+            if (frames >= maxFrames) {
+                throw new IllegalStateException("not idle after " + maxFrames + " frames");
+            }
+            frame();
+            frames++;
+        }
+        return frames;
+    }
+
+    /**
+     * 推进count帧
+     */
+    void frames(int count) {
+        for (int i = 0; i < count; i++) {
+            frame();
+        }
+    }
+
+    /**
+     * 推进一帧，执行这一帧的Choreographer回调
+     */
+    void frame() {
+        begin();
+        ShadowLooper.idleMainLooper(FRAME_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        long allocatedBytes = end();
+        mFrameAllocatedBytes = append(mFrameAllocatedBytes, mFrames, allocatedBytes);
+        mFrames++;
+        frameTranslations.add(target.getTranslationY());
+    }
+
+    /**
+     * 一个move事件：先onNestedPreScroll，父view没有消耗的由子view滚动，子view滚不动的交给onNestedScroll
+     */
+    private void scroll(int dx, int dy, int type) {
+        begin();
+        mConsumed[0] = 0;
+        mConsumed[1] = 0;
+        layout.onNestedPreScroll(mGestureTarget, dx, dy, mConsumed, type);
+        int remainingX = dx - mConsumed[0];
+        int remainingY = dy - mConsumed[1];
+        if (remainingX != 0 || remainingY != 0) {
+            boolean canScrollX = remainingX != 0 && mGestureTarget.canScrollHorizontally(remainingX > 0 ? 1 : -1);
+            boolean canScrollY = remainingY != 0 && mGestureTarget.canScrollVertically(remainingY > 0 ? 1 : -1);
+            int childConsumedX = canScrollX ? remainingX : 0;
+            int childConsumedY = canScrollY ? remainingY : 0;
+            mConsumed[0] = 0;
+            mConsumed[1] = 0;
+            layout.onNestedScroll(mGestureTarget, childConsumedX, childConsumedY,
+                    remainingX - childConsumedX, remainingY - childConsumedY, type, mConsumed);
+        }
+        endNestedCallback();
+    }
+
+    private void begin() {
+        mStartAllocatedBytes = allocatedBytes();
+        mStartCpuNanos = mThreadMXBean.getCurrentThreadCpuTime();
+    }
+
+    private long end() {
+        long cpuNanos = mThreadMXBean.getCurrentThreadCpuTime() - mStartCpuNanos;
+        long allocatedBytes = allocatedBytes() - mStartAllocatedBytes;
+        mCallbacks++;
+        mTotalCpuNanos += cpuNanos;
+        mMaxCpuNanos = Math.max(mMaxCpuNanos, cpuNanos);
+        mAllocatedBytes += allocatedBytes;
+        return allocatedBytes;
+    }
+
+    /**
+     * 嵌套滚动回调结束，回调直接调用OverScrollLayout，分配的内存全部来自OverScrollLayout
+     */
+    private void endNestedCallback() {
+        long allocatedBytes = end();
+        mNestedCallbackAllocatedBytes = append(mNestedCallbackAllocatedBytes, mNestedCallbacks, allocatedBytes);
+        mNestedCallbacks++;
+    }
+
+    private long allocatedBytes() {
+        return mAllocationMXBean != null ? mAllocationMXBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    /**
+     * 清空统计，脚本的准备阶段不计入预算
+     */
+    void resetStats() {
+        frameTranslations.clear();
+        mFrames = 0;
+        mCallbacks = 0;
+        mNestedCallbacks = 0;
+        mTotalCpuNanos = 0;
+        mMaxCpuNanos = 0;
+        mAllocatedBytes = 0;
+    }
+
+    int getFrames() {
+        return mFrames;
+    }
+
+    int getCallbacks() {
+        return mCallbacks;
+    }
+
+    long getTotalCpuNanos() {
+        return mTotalCpuNanos;
+    }
+
+    long getMaxCpuNanos() {
+        return mMaxCpuNanos;
+    }
+
+    long getAllocatedBytes() {
+        return mAllocatedBytes;
+    }
+
+    /**
+     * 第index帧分配的内存，包括Robolectric推进时钟、分发vsync的开销，见{@link #measureFrameOverhead(int)}
+     */
+    long getFrameAllocatedBytes(int index) {
+        return mFrameAllocatedBytes[index];
+    }
+
+    int getNestedCallbacks() {
+        return mNestedCallbacks;
+    }
+
+    /**
+     * 第index个嵌套滚动回调分配的内存
+     */
+    long getNestedCallbackAllocatedBytes(int index) {
+        return mNestedCallbackAllocatedBytes[index];
+    }
+
+    /**
+     * Robolectric每一帧自身分配的内存：用一个不分配内存、每帧重新提交自己的帧回调推进frames帧，取最大值
+     *
+     * 调用后清空统计
+     */
+    long measureFrameOverhead(int frames) {
+        final Choreographer choreographer = Choreographer.getInstance();
+        Choreographer.FrameCallback callback = new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                choreographer.postFrameCallback(this);
+            }
+        };
+        choreographer.postFrameCallback(callback);
+        resetStats();
+        for (int i = 0; i < frames; i++) {
+            frame();
+        }
+        long overhead = 0;
+        for (int i = 0; i < frames; i++) {
+            overhead = Math.max(overhead, mFrameAllocatedBytes[i]);
+        }
+        choreographer.removeFrameCallback(callback);
+        frame();
+        resetStats();
+        return overhead;
+    }
+
+    boolean isAllocationTrackingSupported() {
+        return mAllocationMXBean != null;
+    }
+
+    private static long[] append(long[] array, int index, long value) {
+        if (index >= array.length) {
+            array = Arrays.copyOf(array, array.length * 2);
+        }
+        array[index] = value;
+        return array;
+    }
+
+    /**
+     * 可以控制是否滚动到边界的滚动view
+     */
+    static final class FakeScrollTarget extends View implements ScrollTargetAdapter {
+
+        private boolean mCanScrollBackward = true;
+        private boolean mCanScrollForward = true;
+        private boolean mAdapterAttached = false;
+        private int mScrollRemaining = -1;
+        private boolean mHardwareAccelerated = false;
+
+        FakeScrollTarget(Context context) {
+            super(context);
+        }
+
+        /**
+         * Robolectric中的view没有硬件加速，模拟在硬件加速的窗口中
+         */
+        void setHardwareAccelerated(boolean hardwareAccelerated) {
+            mHardwareAccelerated = hardwareAccelerated;
+        }
+
+        @Override
+        public boolean isHardwareAccelerated() {
+            return mHardwareAccelerated;
+        }
+
+        /**
+         * @param direction 同canScrollVertically
+         */
+        void setCanScroll(int direction, boolean canScroll) {
+            if (direction < 0) {
+                mCanScrollBackward = canScroll;
+            } else {
+                mCanScrollForward = canScroll;
+            }
+        }
+
+        @Override
+        public boolean supportsAxes(int nestedScrollAxes) {
+            return (nestedScrollAxes & (ViewCompat.SCROLL_AXIS_VERTICAL | ViewCompat.SCROLL_AXIS_HORIZONTAL)) != 0;
+        }
+
+        @Override
+        public boolean canScrollVertically(int direction) {
+            return direction < 0 ? mCanScrollBackward : mCanScrollForward;
+        }
+
+        //水平方向一直在边界上
+        @Override
+        public boolean canScrollHorizontally(int direction) {
+            return false;
+        }
+
+        /**
+         * @param remaining 向下还能滚动的距离，-1表示不知道
+         */
+        void setScrollRemaining(int remaining) {
+            mScrollRemaining = remaining;
+        }
+
+        @Override
+        public int getVerticalScrollRemaining(int direction) {
+            return direction > 0 ? mScrollRemaining : -1;
+        }
+
+        @Override
+        public void onAttach() {
+            mAdapterAttached = true;
+        }
+
+        @Override
+        public void onDetach() {
+            mAdapterAttached = false;
+        }
+
+        boolean isAdapterAttached() {
+            return mAdapterAttached;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.yang.overscrolllayout.OverScrollSimulator.state;
+import static org.junit.Assert.*;
+
+/**
+ * 过度滚动状态和边界的回调
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class OverScrollStateTest {
+
+    @Test
+    public void dragAndRelease() {
+        OverScrollSimulator sim = new OverScrollSimulator();
+        List<String> states = sim.recordStates();
+        OverScrollSimulator.DRAG_AND_RELEASE.run(sim);
+        assertEquals(Arrays.asList(
+                state(OverScrollLayout.OVER_SCROLL_STATE_DRAGGING, OverScrollLayout.EDGE_TOP),
+                state(OverScrollLayout.OVER_SCROLL_STATE_SETTLING, OverScrollLayout.EDGE_TOP),
+                state(OverScrollLayout.OVER_SCROLL_STATE_IDLE, 0)), states);
+        assertEquals(OverScrollLayout.OVER_SCROLL_STATE_IDLE, sim.layout.getOverScrollState());
+        assertEquals(0, sim.layout.getOverScrollEdges());
+    }
+
+    @Test
+    public void flingIntoEdge() {
+        OverScrollSimulator sim = new OverScrollSimulator();
+        List<String> states = sim.recordStates();
+        OverScrollSimulator.FLING_INTO_EDGE.run(sim);
+        assertEquals(Arrays.asList(
+                state(OverScrollLayout.OVER_SCROLL_STATE_FLING_OVERSCROLL, OverScrollLayout.EDGE_BOTTOM),
+                state(OverScrollLayout.OVER_SCROLL_STATE_SETTLING, OverScrollLayout.EDGE_BOTTOM),
+                state(OverScrollLayout.OVER_SCROLL_STATE_IDLE, 0)), states);
+    }
+
+    @Test
+    public void touchDuringSpringBack() {
+        OverScrollSimulator sim = new OverScrollSimulator();
+        List<String> states = sim.recordStates();
+        OverScrollSimulator.INTERRUPTED_SPRING_BACK.run(sim);
+        //回弹被按下打断后回到DRAGGING，不经过IDLE
+        assertEquals(Arrays.asList(
+                state(OverScrollLayout.OVER_SCROLL_STATE_DRAGGING, OverScrollLayout.EDGE_TOP),
+                state(OverScrollLayout.OVER_SCROLL_STATE_SETTLING, OverScrollLayout.EDGE_TOP),
+                state(OverScrollLayout.OVER_SCROLL_STATE_DRAGGING, OverScrollLayout.EDGE_TOP),
+                state(OverScrollLayout.OVER_SCROLL_STATE_SETTLING, OverScrollLayout.EDGE_TOP),
+                state(OverScrollLayout.OVER_SCROLL_STATE_IDLE, 0)), states);
+    }
+}
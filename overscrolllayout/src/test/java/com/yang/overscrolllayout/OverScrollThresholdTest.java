@@ -0,0 +1,115 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 过度滚动触发距离测试
+ */
+public class OverScrollThresholdTest {
+
+    private final List<Boolean> mCrossings = new ArrayList<>();
+
+    private final OverScrollThreshold.Callback mCallback = new OverScrollThreshold.Callback() {
+        @Override
+        public void onThresholdCrossed(OverScrollThreshold threshold, boolean reached) {
+            mCrossings.add(reached);
+        }
+    };
+
+    @Test
+    public void crossing_firesOncePerDirection() {
+        OverScrollThreshold threshold = OverScrollThreshold.ofDistance(OverScrollThreshold.EDGE_TOP, 100, 20, mCallback);
+        for (float translation = 0; translation <= 150; translation += 10) {
+            threshold.update(translation, 1000);
+        }
+        assertEquals(1, mCrossings.size());
+        assertTrue(mCrossings.get(0));
+        assertTrue(threshold.isReached());
+
+        for (float translation = 150; translation >= 0; translation -= 10) {
+            threshold.update(translation, 1000);
+        }
+        assertEquals(2, mCrossings.size());
+        assertFalse(mCrossings.get(1));
+        assertFalse(threshold.isReached());
+    }
+
+    @Test
+    public void hysteresis_ignoresJitterAroundThreshold() {
+        OverScrollThreshold threshold = OverScrollThreshold.ofDistance(OverScrollThreshold.EDGE_TOP, 100, 20, mCallback);
+        threshold.update(100, 1000);
+        //在回差范围内来回抖动
+        for (int i = 0; i < 10; i++) {
+            threshold.update(i % 2 == 0 ? 85 : 101, 1000);
+        }
+        assertEquals(1, mCrossings.size());
+        threshold.update(79, 1000);
+        assertEquals(2, mCrossings.size());
+        assertFalse(mCrossings.get(1));
+    }
+
+    @Test
+    public void edge_onlyCountsItsOwnDirection() {
+        OverScrollThreshold top = OverScrollThreshold.ofDistance(OverScrollThreshold.EDGE_TOP, 50, 0, mCallback);
+        OverScrollThreshold bottom = OverScrollThreshold.ofDistance(OverScrollThreshold.EDGE_BOTTOM, 50, 0, mCallback);
+        top.update(-80, 1000);
+        assertFalse(top.isReached());
+        bottom.update(-80, 1000);
+        assertTrue(bottom.isReached());
+        bottom.update(80, 1000);
+        assertFalse(bottom.isReached());
+        assertEquals(2, mCrossings.size());
+
+        assertTrue(OverScrollThreshold.ofDistance(OverScrollThreshold.EDGE_RIGHT, 1, 0, mCallback).isHorizontal());
+        assertFalse(top.isHorizontal());
+    }
+
+    @Test
+    public void fraction_followsMaxDistance() {
+        OverScrollThreshold threshold = OverScrollThreshold.ofFraction(OverScrollThreshold.EDGE_LEFT, 0.25f, 0.05f, mCallback);
+        assertEquals(100, threshold.getDistance(400), 0);
+        threshold.update(90, 400);
+        assertFalse(threshold.isReached());
+        //最大距离变小后，同样的位移超过了触发距离
+        threshold.update(90, 200);
+        assertTrue(threshold.isReached());
+        //回差也按比例换算：50 - 10
+        threshold.update(41, 200);
+        assertTrue(threshold.isReached());
+        threshold.update(39, 200);
+        assertFalse(threshold.isReached());
+    }
+
+    @Test
+    public void zeroMaxDistance_neverFires() {
+        OverScrollThreshold threshold = OverScrollThreshold.ofFraction(OverScrollThreshold.EDGE_TOP, 0.5f, 0, mCallback);
+        threshold.update(10, 0);
+        assertTrue(mCrossings.isEmpty());
+    }
+
+    @Test
+    public void invalidArguments_throw() {
+        assertThrows(5, 100, 0);
+        assertThrows(OverScrollThreshold.EDGE_TOP, 0, 0);
+        assertThrows(OverScrollThreshold.EDGE_TOP, 100, 101);
+        assertThrows(OverScrollThreshold.EDGE_TOP, 100, -1);
+        try {
+            OverScrollThreshold.ofFraction(OverScrollThreshold.EDGE_TOP, 1.5f, 0, mCallback);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private void assertThrows(int edge, float distance, float hysteresis) {
+        try {
+            OverScrollThreshold.ofDistance(edge, distance, hysteresis, mCallback);
+            fail("edge=" + edge + " distance=" + distance + " hysteresis=" + hysteresis);
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
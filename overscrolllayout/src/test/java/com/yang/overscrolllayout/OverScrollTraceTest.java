@@ -0,0 +1,82 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 事件追踪的环形缓冲区和导出顺序
+ */
+public class OverScrollTraceTest {
+
+    private static final long FRAME = 16_000_000L;
+
+    private static String[] lines(OverScrollTrace trace) {
+        String dump = trace.toString();
+        return dump.isEmpty() ? new String[0] : dump.split("\n");
+    }
+
+    @Test
+    public void dump_oldestToNewestWithFrameTime() {
+        OverScrollTrace trace = new OverScrollTrace(8);
+        assertEquals(0, lines(trace).length);
+        trace.setFrameTime(5 * FRAME);
+        trace.record(OverScrollTrace.EVENT_START_NESTED_SCROLL, 2, 0);
+        trace.record(OverScrollTrace.EVENT_NESTED_PRE_SCROLL, 0, -10, 0, 0);
+        trace.setFrameTime(6 * FRAME);
+        trace.record(OverScrollTrace.EVENT_TRANSLATE_Y, -10, -4);
+        trace.setFrameTime(8 * FRAME);
+        trace.record(OverScrollTrace.EVENT_ABORT_ANIMATION);
+
+        String[] lines = lines(trace);
+        assertEquals(4, trace.size());
+        assertEquals(4, lines.length);
+        //同一帧的事件时间相同，时间相对第一条事件
+        assertEquals("0.0ms startNestedScroll 2.0 0.0 0.0 0.0", lines[0]);
+        assertEquals("0.0ms nestedPreScroll 0.0 -10.0 0.0 0.0", lines[1]);
+        assertEquals("16.0ms translateY -10.0 -4.0 0.0 0.0", lines[2]);
+        assertEquals("48.0ms abortAnimation 0.0 0.0 0.0 0.0", lines[3]);
+    }
+
+    @Test
+    public void ringBuffer_wrapsAroundAndKeepsNewest() {
+        OverScrollTrace trace = new OverScrollTrace(3);
+        for (int i = 0; i < 7; i++) {
+            trace.setFrameTime(i * FRAME);
+            trace.record(OverScrollTrace.EVENT_TRANSLATE_Y, i);
+        }
+        assertEquals(3, trace.getCapacity());
+        assertEquals(3, trace.size());
+        String[] lines = lines(trace);
+        assertEquals(3, lines.length);
+        //最旧的4条被覆盖，从第5条开始按顺序导出
+        assertEquals("0.0ms translateY 4.0 0.0 0.0 0.0", lines[0]);
+        assertEquals("16.0ms translateY 5.0 0.0 0.0 0.0", lines[1]);
+        assertEquals("32.0ms translateY 6.0 0.0 0.0 0.0", lines[2]);
+
+        //写满之后再写一条，起点移到下一个位置
+        trace.record(OverScrollTrace.EVENT_SPRING_BACK, 7);
+        lines = lines(trace);
+        assertEquals("0.0ms translateY 5.0 0.0 0.0 0.0", lines[0]);
+        assertEquals("16.0ms translateY 6.0 0.0 0.0 0.0", lines[1]);
+        assertEquals("16.0ms springBack 7.0 0.0 0.0 0.0", lines[2]);
+    }
+
+    @Test
+    public void clear_emptiesBuffer() {
+        OverScrollTrace trace = new OverScrollTrace(2);
+        trace.record(OverScrollTrace.EVENT_TRANSLATE_X, 1);
+        trace.record(OverScrollTrace.EVENT_TRANSLATE_X, 2);
+        trace.record(OverScrollTrace.EVENT_TRANSLATE_X, 3);
+        trace.clear();
+        assertEquals(0, trace.size());
+        assertEquals("", trace.toString());
+        trace.record(OverScrollTrace.EVENT_TRANSLATE_X, 4);
+        assertArrayEquals(new String[]{"0.0ms translateX 4.0 0.0 0.0 0.0"}, lines(trace));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroCapacity_throws() {
+        new OverScrollTrace(0);
+    }
+}
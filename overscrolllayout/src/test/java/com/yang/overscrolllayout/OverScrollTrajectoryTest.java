@@ -0,0 +1,94 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 衰减加弹簧的整条过度滚动轨迹测试
+ */
+public class OverScrollTrajectoryTest {
+
+    private static final long START = 123456789L;
+    private static final long FRAME = 1000000000L / 60;
+    private static final float VELOCITY = 6000f;
+
+    @Test
+    public void decaySegment_matchesDecay() {
+        OverScrollTrajectory trajectory = new OverScrollTrajectory();
+        OverScrollDecay decay = new OverScrollDecay();
+        trajectory.start(0, VELOCITY, START);
+        decay.start(VELOCITY, START);
+        for (long t = START; t < trajectory.getHandoffTimeNanos(); t += FRAME) {
+            trajectory.update(t);
+            decay.update(t);
+            assertEquals(decay.getOffset(), trajectory.getPosition(), 0.001f);
+            assertEquals(decay.getVelocity(), trajectory.getVelocity(), 0.01f);
+        }
+    }
+
+    @Test
+    public void handoff_isContinuous() {
+        OverScrollTrajectory trajectory = new OverScrollTrajectory();
+        trajectory.start(0, VELOCITY, START);
+        long handoff = trajectory.getHandoffTimeNanos();
+        assertTrue(handoff > START);
+
+        long dt = 1000;
+        trajectory.update(handoff - dt);
+        float positionBefore = trajectory.getPosition();
+        float velocityBefore = trajectory.getVelocity();
+        trajectory.update(handoff);
+        assertEquals(positionBefore, trajectory.getPosition(), 0.01f);
+        assertEquals(velocityBefore, trajectory.getVelocity(), 1f);
+    }
+
+    @Test
+    public void returnsToRestWithoutCrossingZero() {
+        OverScrollTrajectory trajectory = new OverScrollTrajectory();
+        trajectory.start(0, -VELOCITY, START);
+        float min = 0;
+        int frames = 0;
+        while (trajectory.update(START + FRAME * ++frames)) {
+            assertTrue(trajectory.getPosition() <= 0);
+            min = Math.min(min, trajectory.getPosition());
+            assertTrue("too many frames", frames < 120);
+        }
+        assertTrue(min < -VELOCITY * OverScrollDecay.DEFAULT_TIME_CONSTANT + 1);
+        assertEquals(0, trajectory.getPosition(), 0);
+        assertEquals(0, trajectory.getVelocity(), 0);
+    }
+
+    @Test
+    public void sampling_isIndependentOfPreviousFrames() {
+        OverScrollTrajectory sequential = new OverScrollTrajectory();
+        OverScrollTrajectory direct = new OverScrollTrajectory();
+        sequential.start(0, VELOCITY, START);
+        for (int i = 1; i <= 30; i++) {
+            long t = START + FRAME * i;
+            sequential.update(t);
+            direct.start(0, VELOCITY, START);
+            direct.update(t);
+            assertEquals("frame " + i, direct.getPosition(), sequential.getPosition(), 0);
+        }
+    }
+
+    @Test
+    public void velocityTowardsRest_hasNoDecaySegment() {
+        OverScrollTrajectory trajectory = new OverScrollTrajectory();
+        trajectory.start(200, -1000, START);
+        assertEquals(START, trajectory.getHandoffTimeNanos());
+        trajectory.update(START);
+        assertEquals(200, trajectory.getPosition(), 0.001f);
+        assertEquals(-1000, trajectory.getVelocity(), 0.01f);
+    }
+
+    @Test
+    public void atRest_isFinished() {
+        OverScrollTrajectory trajectory = new OverScrollTrajectory();
+        trajectory.start(0, 0, START);
+        assertTrue(trajectory.isFinished());
+        assertFalse(trajectory.update(START + FRAME));
+        assertEquals(0, trajectory.getPosition(), 0);
+    }
+}
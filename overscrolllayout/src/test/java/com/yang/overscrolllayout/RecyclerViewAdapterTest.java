@@ -0,0 +1,155 @@
+package com.yang.overscrolllayout;
+
+import android.app.Activity;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * RecyclerView适配器的能否滚动缓存，用真实的RecyclerView分发触摸事件
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class RecyclerViewAdapterTest {
+
+    private static final int WIDTH = 500;
+    private static final int HEIGHT = 1000;
+    private static final int ITEM_HEIGHT = 100;
+    private static final int ITEM_COUNT = 12;
+    //每个move事件手指移动的距离
+    private static final int STEP = 30;
+
+    private static final class ItemAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        int count;
+
+        ItemAdapter(int count) {
+            this.count = count;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            View view = new View(parent.getContext());
+            view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ITEM_HEIGHT));
+            return new RecyclerView.ViewHolder(view) {
+            };
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+
+        @Override
+        public int getItemCount() {
+            return count;
+        }
+    }
+
+    private OverScrollLayout mLayout;
+    private RecyclerView mRecyclerView;
+    private ItemAdapter mAdapter;
+    private long mDownTime;
+
+    @Before
+    public void setUp() {
+        ShadowLooper.pauseMainLooper();
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        mRecyclerView = new RecyclerView(activity);
+        mRecyclerView.setLayoutManager(new LinearLayoutManager(activity));
+        //没有item动画，缓存一直可用
+        mRecyclerView.setItemAnimator(null);
+        mAdapter = new ItemAdapter(ITEM_COUNT);
+        mRecyclerView.setAdapter(mAdapter);
+
+        mLayout = new OverScrollLayout(activity);
+        mLayout.addView(mRecyclerView, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        mLayout.setScrollView(mRecyclerView);
+        //attach到窗口上，适配器才注册监听、使用缓存
+        activity.setContentView(mLayout, new ViewGroup.LayoutParams(WIDTH, HEIGHT));
+        layout();
+    }
+
+    private void layout() {
+        mLayout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mLayout.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    private void touch(int action, float y) {
+        if (action == MotionEvent.ACTION_DOWN) {
+            mDownTime = SystemClock.uptimeMillis();
+        }
+        MotionEvent event = MotionEvent.obtain(mDownTime, SystemClock.uptimeMillis(), action, WIDTH / 2f, y, 0);
+        mLayout.dispatchTouchEvent(event);
+        event.recycle();
+        ShadowLooper.idleMainLooper(OverScrollSimulator.FRAME_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private int scrollRange() {
+        return mRecyclerView.computeVerticalScrollRange() - mRecyclerView.computeVerticalScrollExtent();
+    }
+
+    @Test
+    public void dragIntoBottomEdge_overScrollsOnFirstUnconsumedFrame() {
+        int range = scrollRange();
+        assertEquals(ITEM_COUNT * ITEM_HEIGHT - HEIGHT, range);
+
+        float y = HEIGHT - ITEM_HEIGHT;
+        touch(MotionEvent.ACTION_DOWN, y);
+        //第一个move事件越过touch slop，开始拖动
+        y -= STEP;
+        touch(MotionEvent.ACTION_MOVE, y);
+        assertEquals(RecyclerView.SCROLL_STATE_DRAGGING, mRecyclerView.getScrollState());
+
+        boolean reachedEdge = false;
+        for (int i = 0; i < range / STEP + 2 && !reachedEdge; i++) {
+            int offset = mRecyclerView.computeVerticalScrollOffset();
+            assertEquals(0f, mRecyclerView.getTranslationY(), 0f);
+            y -= STEP;
+            touch(MotionEvent.ACTION_MOVE, y);
+            if (mRecyclerView.computeVerticalScrollOffset() == range) {
+                reachedEdge = true;
+                int unconsumed = STEP - (range - offset);
+                assertTrue("unconsumed: " + unconsumed, unconsumed > 0);
+                //滚动到底部的这一帧，子view没消费完的距离就开始过度滚动
+                assertTrue(mRecyclerView.getTranslationY() < 0);
+            }
+        }
+        assertTrue(reachedEdge);
+        touch(MotionEvent.ACTION_UP, y);
+    }
+
+    @Test
+    public void dataChange_invalidatesCache() {
+        ScrollTargetAdapter adapter = new ScrollTargetAdapters.RecyclerViewAdapter(mRecyclerView);
+        adapter.onAttach();
+        mRecyclerView.scrollBy(0, scrollRange());
+        layout();
+        //缓存到底部不能滚动
+        assertFalse(adapter.canScrollVertically(1));
+        assertTrue(adapter.canScrollVertically(-1));
+
+        mAdapter.count += 3;
+        mAdapter.notifyItemRangeInserted(ITEM_COUNT, 3);
+        layout();
+        assertTrue(adapter.canScrollVertically(1));
+        adapter.onDetach();
+    }
+}
@@ -0,0 +1,247 @@
+package com.yang.overscrolllayout;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import androidx.annotation.NonNull;
+import androidx.core.view.NestedScrollingChild;
+import androidx.core.view.ScrollingView;
+import androidx.core.widget.NestedScrollView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 滚动view适配器的查找顺序和内置适配器
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ScrollTargetAdaptersTest {
+
+    /**
+     * 实现了ScrollingView的自定义滚动view，滚动范围直接设置
+     */
+    private static final class FakeScrollingView extends View implements ScrollingView, NestedScrollingChild {
+        int offset;
+        int range;
+        int extent;
+
+        FakeScrollingView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public int computeHorizontalScrollRange() {
+            return range;
+        }
+
+        @Override
+        public int computeHorizontalScrollOffset() {
+            return offset;
+        }
+
+        @Override
+        public int computeHorizontalScrollExtent() {
+            return extent;
+        }
+
+        @Override
+        public int computeVerticalScrollRange() {
+            return range;
+        }
+
+        @Override
+        public int computeVerticalScrollOffset() {
+            return offset;
+        }
+
+        @Override
+        public int computeVerticalScrollExtent() {
+            return extent;
+        }
+    }
+
+    /**
+     * 没有实现ScrollingView的NestedScrollingChild，比如WebView
+     */
+    private static final class FakeNestedScrollingChild extends View implements NestedScrollingChild {
+        boolean canScrollUp = true;
+        boolean canScrollDown = false;
+
+        FakeNestedScrollingChild(Context context) {
+            super(context);
+        }
+
+        @Override
+        public boolean canScrollVertically(int direction) {
+            return direction < 0 ? canScrollUp : canScrollDown;
+        }
+    }
+
+    /**
+     * 记录创建过的view，匹配所有view
+     */
+    private static final class RecordingFactory implements ScrollTargetAdapter.Factory {
+        final List<View> created = new ArrayList<>();
+
+        @Override
+        public boolean isScrollTarget(@NonNull View view) {
+            return true;
+        }
+
+        @NonNull
+        @Override
+        public ScrollTargetAdapter create(@NonNull View view) {
+            created.add(view);
+            return new ScrollTargetAdapters.ViewAdapter(view);
+        }
+    }
+
+    private static Context context() {
+        return RuntimeEnvironment.getApplication();
+    }
+
+    @Test
+    public void findScrollView_autoDetectsOnlyRecyclerViewAndNestedScrollView() {
+        OverScrollLayout layout = new OverScrollLayout(context());
+        FakeScrollingView scrollingView = new FakeScrollingView(context());
+        FakeNestedScrollingChild nestedScrollingChild = new FakeNestedScrollingChild(context());
+        NestedScrollView nestedScrollView = new NestedScrollView(context());
+        layout.addView(scrollingView);
+        layout.addView(nestedScrollingChild);
+        layout.addView(nestedScrollView);
+        //内置的通用适配器不参与自动查找
+        assertFalse(layout.isScrollView(scrollingView));
+        assertFalse(layout.isScrollView(nestedScrollingChild));
+        assertSame(nestedScrollView, layout.findScrollView());
+
+        //注册的适配器工厂参与自动查找
+        layout.addScrollTargetAdapterFactory(new RecordingFactory());
+        assertSame(scrollingView, layout.findScrollView());
+    }
+
+    @Test
+    public void factories_newestRegisteredWinsAndBeatsBuiltIns() {
+        OverScrollLayout layout = new OverScrollLayout(context());
+        NestedScrollView nestedScrollView = new NestedScrollView(context());
+        layout.addView(nestedScrollView);
+        RecordingFactory first = new RecordingFactory();
+        RecordingFactory second = new RecordingFactory();
+        layout.addScrollTargetAdapterFactory(first);
+        layout.addScrollTargetAdapterFactory(second);
+
+        layout.setScrollView(nestedScrollView);
+        assertTrue(first.created.isEmpty());
+        assertEquals(1, second.created.size());
+        assertSame(nestedScrollView, second.created.get(0));
+    }
+
+    @Test
+    public void removeFactory_fallsBackToPreviousFactories() {
+        OverScrollLayout layout = new OverScrollLayout(context());
+        View view = new View(context());
+        layout.addView(view);
+        RecordingFactory first = new RecordingFactory();
+        RecordingFactory second = new RecordingFactory();
+        layout.addScrollTargetAdapterFactory(first);
+        layout.addScrollTargetAdapterFactory(second);
+        layout.removeScrollTargetAdapterFactory(second);
+
+        layout.setScrollView(view);
+        assertTrue(second.created.isEmpty());
+        assertEquals(1, first.created.size());
+
+        layout.removeScrollTargetAdapterFactory(first);
+        assertFalse(layout.isScrollView(view));
+    }
+
+    @Test
+    public void defaultFactories_matchInOrder() {
+        assertSame(ScrollTargetAdapters.NESTED_SCROLL_VIEW,
+                ScrollTargetAdapters.findDefaultFactory(new NestedScrollView(context())));
+        assertSame(ScrollTargetAdapters.SCROLLING_VIEW,
+                ScrollTargetAdapters.findDefaultFactory(new FakeScrollingView(context())));
+        assertSame(ScrollTargetAdapters.NESTED_SCROLLING_CHILD,
+                ScrollTargetAdapters.findDefaultFactory(new FakeNestedScrollingChild(context())));
+        assertNull(ScrollTargetAdapters.findDefaultFactory(new View(context())));
+    }
+
+    @Test
+    public void nestedScrollViewAdapter_rangeIncludesMarginsAndPadding() {
+        NestedScrollView scrollView = new NestedScrollView(context());
+        scrollView.setPadding(0, 10, 0, 20);
+        View child = new View(context());
+        FrameLayout.LayoutParams lp = new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 1000);
+        lp.topMargin = 30;
+        lp.bottomMargin = 40;
+        scrollView.addView(child, lp);
+        scrollView.measure(View.MeasureSpec.makeMeasureSpec(500, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(500, View.MeasureSpec.EXACTLY));
+        scrollView.layout(0, 0, 500, 500);
+
+        //子view 1000 + 30 + 40，可见高度 500 - 10 - 20
+        int range = 1070 - 470;
+        ScrollTargetAdapter adapter = ScrollTargetAdapters.create(scrollView);
+        assertTrue(adapter instanceof ScrollTargetAdapters.NestedScrollViewAdapter);
+        assertFalse(adapter.canScrollVertically(-1));
+        assertTrue(adapter.canScrollVertically(1));
+        assertEquals(range, adapter.getVerticalScrollRemaining(1));
+        assertEquals(0, adapter.getVerticalScrollRemaining(-1));
+
+        scrollView.scrollTo(0, range);
+        assertTrue(adapter.canScrollVertically(-1));
+        assertFalse(adapter.canScrollVertically(1));
+        assertEquals(0, adapter.getVerticalScrollRemaining(1));
+        assertEquals(range, adapter.getVerticalScrollRemaining(-1));
+        assertFalse(adapter.canScrollHorizontally(1));
+    }
+
+    @Test
+    public void scrollingViewAdapter_usesScrollRange() {
+        FakeScrollingView view = new FakeScrollingView(context());
+        ScrollTargetAdapter adapter = ScrollTargetAdapters.create(view);
+        assertTrue(adapter instanceof ScrollTargetAdapters.ScrollingViewAdapter);
+        //内容没有超出可见范围
+        view.range = 500;
+        view.extent = 500;
+        assertFalse(adapter.canScrollVertically(-1));
+        assertFalse(adapter.canScrollVertically(1));
+        assertEquals(0, adapter.getVerticalScrollRemaining(1));
+
+        view.range = 1500;
+        view.offset = 200;
+        assertTrue(adapter.canScrollVertically(-1));
+        assertTrue(adapter.canScrollVertically(1));
+        assertTrue(adapter.canScrollHorizontally(1));
+        assertEquals(800, adapter.getVerticalScrollRemaining(1));
+        assertEquals(200, adapter.getVerticalScrollRemaining(-1));
+
+        view.offset = 1000;
+        assertFalse(adapter.canScrollVertically(1));
+        assertEquals(0, adapter.getHorizontalScrollRemaining(1));
+    }
+
+    @Test
+    public void viewAdapter_delegatesToView() {
+        FakeNestedScrollingChild child = new FakeNestedScrollingChild(context());
+        ScrollTargetAdapter adapter = ScrollTargetAdapters.create(child);
+        assertTrue(adapter instanceof ScrollTargetAdapters.ViewAdapter);
+        assertTrue(adapter.canScrollVertically(-1));
+        assertFalse(adapter.canScrollVertically(1));
+        child.canScrollDown = true;
+        assertTrue(adapter.canScrollVertically(1));
+        //不知道滚动距离
+        assertEquals(-1, adapter.getVerticalScrollRemaining(1));
+
+        //不匹配任何适配器的view也用ViewAdapter
+        assertTrue(ScrollTargetAdapters.create(new View(context())) instanceof ScrollTargetAdapters.ViewAdapter);
+    }
+}
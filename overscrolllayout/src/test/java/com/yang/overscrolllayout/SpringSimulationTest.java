@@ -0,0 +1,75 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 弹簧解析解测试
+ */
+public class SpringSimulationTest {
+
+    private static final long FRAME = 1000000000L / 60;
+
+    private static final float[] DAMPING_RATIOS = {0.5f, 1f, 1.5f};
+
+    @Test
+    public void start_keepsPositionAndVelocity() {
+        for (float ratio : DAMPING_RATIOS) {
+            SpringSimulation spring = new SpringSimulation(SpringSimulation.DEFAULT_STIFFNESS, ratio);
+            spring.start(300, -2000, 0);
+            spring.update(0);
+            assertEquals("ratio=" + ratio, 300, spring.getPosition(), 0.001f);
+            assertEquals("ratio=" + ratio, -2000, spring.getVelocity(), 0.01f);
+        }
+    }
+
+    @Test
+    public void velocity_isDerivativeOfPosition() {
+        long dt = 100000;
+        for (float ratio : DAMPING_RATIOS) {
+            SpringSimulation spring = new SpringSimulation(SpringSimulation.DEFAULT_STIFFNESS, ratio);
+            for (long t = FRAME; t < FRAME * 20; t += FRAME) {
+                spring.start(300, 1500, 0);
+                spring.update(t - dt);
+                float before = spring.getPosition();
+                spring.update(t);
+                float velocity = spring.getVelocity();
+                spring.update(t + dt);
+                float after = spring.getPosition();
+                float derivative = (after - before) / (2 * dt / 1e9f);
+                assertEquals("ratio=" + ratio + " t=" + t, derivative, velocity, Math.abs(velocity) * 0.01f + 1f);
+            }
+        }
+    }
+
+    @Test
+    public void criticallyDamped_settlesWithoutCrossingZero() {
+        SpringSimulation spring = new SpringSimulation();
+        spring.start(400, 0, 0);
+        int frames = 0;
+        while (spring.update(FRAME * ++frames)) {
+            assertTrue(spring.getPosition() >= 0);
+            assertTrue("too many frames", frames < 120);
+        }
+        assertEquals(0, spring.getPosition(), 0);
+        assertEquals(0, spring.getVelocity(), 0);
+    }
+
+    @Test
+    public void velocityTowardsRest_settlesFaster() {
+        SpringSimulation fromRest = new SpringSimulation();
+        fromRest.start(400, 0, 0);
+        SpringSimulation withVelocity = new SpringSimulation();
+        withVelocity.start(400, -3000, 0);
+        assertTrue(countFrames(withVelocity) < countFrames(fromRest));
+    }
+
+    private static int countFrames(SpringSimulation spring) {
+        int frames = 0;
+        while (spring.update(FRAME * ++frames)) {
+            assertTrue("too many frames", frames < 600);
+        }
+        return frames;
+    }
+}
@@ -0,0 +1,68 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+
+import static org.junit.Assert.*;
+
+/**
+ * 回弹过程中按下，手势从内容view当前的位置接管
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class TakeOverTranslationTest {
+
+    private OverScrollSimulator mSim;
+
+    @Before
+    public void setUp() {
+        mSim = new OverScrollSimulator();
+    }
+
+    /**
+     * 拖动后松手，回弹5帧
+     */
+    private void springBackFewFrames() {
+        mSim.dragFromTop(-30, 20);
+        mSim.release(0);
+        mSim.frames(5);
+    }
+
+    @Test
+    public void continuesFromRenderedOffset() {
+        springBackFewFrames();
+        //回弹过程中高度变小，最大过度滚动距离变了，阻尼的映射和动画写入时不同
+        mSim.resize(OverScrollSimulator.WIDTH, OverScrollSimulator.HEIGHT / 2);
+        float rendered = mSim.target.getTranslationY();
+        assertTrue(rendered > 0);
+
+        //按下时停在原地，第一个move事件就沿手指的方向移动，不跳变
+        mSim.touchDown();
+        assertEquals(rendered, mSim.target.getTranslationY(), 0f);
+        mSim.drag(-2, 1);
+        float moved = mSim.target.getTranslationY();
+        assertTrue(moved > rendered);
+        assertTrue(moved - rendered < 2);
+
+        mSim.releaseAndSettle();
+        assertEquals(0f, mSim.target.getTranslationY(), 0f);
+    }
+
+    @Test
+    public void keepsTranslationOfOtherAxis() {
+        //竖直方向过度滚动，水平方向的位移是应用设置的
+        mSim.target.setTranslationX(50);
+        springBackFewFrames();
+        assertTrue(mSim.target.getTranslationY() > 0);
+
+        mSim.touchDown();
+        mSim.drag(-2, 1);
+        assertEquals(50f, mSim.target.getTranslationX(), 0f);
+        mSim.releaseAndSettle();
+        assertEquals(0f, mSim.target.getTranslationY(), 0f);
+        assertEquals(50f, mSim.target.getTranslationX(), 0f);
+    }
+}
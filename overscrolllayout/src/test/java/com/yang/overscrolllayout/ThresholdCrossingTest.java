@@ -0,0 +1,43 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 拖动、回弹过程中触发距离的回调
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class ThresholdCrossingTest {
+
+    @Test
+    public void dragAndRelease_crossedOnceEachWay() {
+        OverScrollSimulator sim = new OverScrollSimulator();
+        final List<Boolean> crossings = new ArrayList<>();
+        sim.layout.addOverScrollThreshold(OverScrollThreshold.ofFraction(OverScrollThreshold.EDGE_TOP, 0.1f, 0.02f,
+                new OverScrollThreshold.Callback() {
+                    @Override
+                    public void onThresholdCrossed(OverScrollThreshold threshold, boolean reached) {
+                        crossings.add(reached);
+                    }
+                }));
+        //底部边界的触发距离不受顶部过度滚动的影响
+        sim.layout.addOverScrollThreshold(OverScrollThreshold.ofDistance(OverScrollThreshold.EDGE_BOTTOM, 1, 0,
+                new OverScrollThreshold.Callback() {
+                    @Override
+                    public void onThresholdCrossed(OverScrollThreshold threshold, boolean reached) {
+                        fail("bottom edge crossed");
+                    }
+                }));
+        OverScrollSimulator.DRAG_AND_RELEASE.run(sim);
+        assertEquals(Arrays.asList(true, false), crossings);
+    }
+}
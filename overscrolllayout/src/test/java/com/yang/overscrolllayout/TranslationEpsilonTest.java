@@ -0,0 +1,52 @@
+package com.yang.overscrolllayout;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 位移变化不足阈值时不写入View
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class TranslationEpsilonTest {
+
+    private static final float EPSILON = 5;
+
+    @Test
+    public void smallWritesSkippedAndZeroAlwaysWritten() {
+        OverScrollSimulator sim = new OverScrollSimulator();
+        sim.layout.setTranslationEpsilon(EPSILON);
+        //只有写入了View的translation才回调
+        List<Float> writes = sim.recordOverScroll();
+        //每个move事件的实际位移变化都不超过阈值，累计超过阈值才写入。拖回来的步长不同，最后一步不足阈值
+        sim.dragFromTop(-1, 40);
+        sim.drag(3, 14);
+        assertFalse(writes.isEmpty());
+        assertTrue(writes.size() < 40);
+        for (int i = 0; i < writes.size() - 1; i++) {
+            float previous = i == 0 ? 0 : writes.get(i - 1);
+            assertTrue(Math.abs(writes.get(i) - previous) > EPSILON);
+        }
+        //回到原位置时变化不足阈值也写入0
+        assertEquals(0f, writes.get(writes.size() - 1), 0f);
+        assertTrue(Math.abs(writes.get(writes.size() - 2)) <= EPSILON);
+        assertEquals(0f, sim.target.getTranslationY(), 0f);
+        sim.releaseAndSettle();
+        assertEquals(0f, sim.target.getTranslationY(), 0f);
+    }
+
+    @Test
+    public void defaultEpsilon_writesEveryChange() {
+        OverScrollSimulator sim = new OverScrollSimulator();
+        List<Float> writes = sim.recordOverScroll();
+        sim.dragFromTop(-1, 40);
+        assertEquals(40, writes.size());
+        sim.releaseAndSettle();
+    }
+}